@@ -1,18 +1,31 @@
 import events.*;
+import events.bus.Coalescing;
+import events.bus.Delivery;
 import events.bus.EventBus;
 import model.Player;
 import model.Team;
+import persistence.EventSourcedStore;
+import persistence.MappedEventQueuePublisher;
 import persistence.SnapshotSerializer;
 import persistence.FilePersistenceListener;
 import repository.InMemoryTeamRepository;
+import repository.MatchHistory;
+import service.LeagueService;
 import service.PlayerService;
 import service.TeamService;
+import service.TransactionService;
+import service.impl.LeagueServiceImpl;
 import service.impl.PlayerServiceImpl;
 import service.impl.TeamServiceImpl;
+import service.impl.TransactionServiceImpl;
+import simulation.EloRatings;
+import simulation.MatchScheduler;
+import simulation.TeamProfileCache;
 import ui.AppController;
 import ui.ConsoleMenu;
 import ui.UiEventListener;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.List;
 
@@ -23,10 +36,36 @@ public class Main {
     private static final String PLAYERS_CSV_PATH = "data/players.csv";
     private static final String TEAMS_JSON_PATH = "data/teams.json";
     private static final String PLAYERS_JSON_PATH = "data/players.json";
+    private static final String EVENT_LOG_PATH = "data/events.log";
+    private static final String EVENT_SNAPSHOT_PATH = "data/events-snapshot.bin";
+    private static final String EVENT_QUEUE_PATH = "data/events.queue";
+
+    // Tamaño del anillo compartido con otros procesos (potencia de dos)
+    private static final int EVENT_QUEUE_CAPACITY = 16 * 1024 * 1024;
+
+    // Eventos entre dos snapshots binarios: acota la cola a reproducir al arrancar
+    private static final int SNAPSHOT_EVERY_EVENTS = 10_000;
 
     // Tiempo de espera para guardar en disco tras un evento (Debounce)
     private static final long PERSISTENCE_DEBOUNCE_MS = 300;
 
+    // Ventana en la que los partidos simulados se entregan juntos a la consola
+    private static final long UI_MATCH_WINDOW_MS = 100;
+
+    // Partidos en segundo plano admitidos a la vez (en cola o jugándose)
+    private static final int MATCH_QUEUE_CAPACITY = 10_000;
+
+    // Las puntuaciones Elo ajustan las probabilidades de gol de los equipos.
+    // Desactivado: el evento del partido no guarda la puntuación usada, así que la semilla ya no bastaría para repetirlo
+    private static final boolean RATINGS_SET_ODDS = false;
+
+    // La racha goleadora sube las probabilidades de los jugadores que ya han marcado.
+    // Desactivado por lo mismo: los goles cambian con cada partido y el evento no los guarda
+    private static final boolean FORM_SETS_ODDS = false;
+
+    // Dominio JMX bajo el que se publican las métricas del bus de eventos
+    private static final String EVENT_BUS_JMX_DOMAIN = "soccer.events";
+
     public static void main(String[] args) {
 
         // Configure file paths relative to the working directory
@@ -40,34 +79,68 @@ public class Main {
 
         // Create repository and preload teams from persistence.
         InMemoryTeamRepository memoryRepo = new InMemoryTeamRepository();
+        // Historial de resultados: se guarda con el snapshot binario
+        MatchHistory matchHistory = new MatchHistory();
+        // Puntuaciones Elo: se actualizan con cada partido y se guardan con el snapshot
+        EloRatings ratings = new EloRatings();
 
-        // Attempt to load data from JSON, falling back to CSV
+        // The event log is the system of record; JSON/CSV only seed the first run
+        EventSourcedStore eventStore;
+        try {
+            eventStore = new EventSourcedStore(Path.of(EVENT_LOG_PATH), Path.of(EVENT_SNAPSHOT_PATH), memoryRepo, memoryRepo, memoryRepo,
+                    matchHistory, ratings, SNAPSHOT_EVERY_EVENTS, Runtime.getRuntime().availableProcessors());
+        } catch (IOException e) {
+            System.err.println("Error: No se pudo abrir el log de eventos: " + e.getMessage());
+            return;
+        }
+        boolean firstRun;
         try {
-            System.out.println("Cargando datos...");
-            List<Team> loadedTeams = serializer.loadTeamsSnapshotFromJson();
-            List<Player> loadedPlayers = serializer.loadPlayersSnapshotFromJson();
-
-            if (loadedTeams.isEmpty() || loadedPlayers.isEmpty()) {
-                System.out.println("Datos JSON no encontrados o vacíos. Intentando cargar CSV...");
-                loadedTeams = serializer.loadTeamsSnapshotFromCsv();
-                loadedPlayers = serializer.loadPlayersSnapshotFromCsv();
+            firstRun = !eventStore.hasHistory();
+        } catch (IOException e) {
+            System.err.println("Error: No se pudo leer el log de eventos: " + e.getMessage());
+            return;
+        }
+        if (firstRun) {
+            try {
+                loadFromFiles(serializer, memoryRepo);
+            } catch (Exception e) {
+                System.err.println("Advertencia: No se pudo cargar la información guardada: " + e.getMessage());
             }
-            // Persist loaded teams to repository
-            memoryRepo.saveTeams(loadedTeams);
-            memoryRepo.savePlayers(loadedPlayers);
-            System.out.println("Carga completada: " + loadedTeams.size() + " equipos y " + loadedPlayers.size() + " jugadores.");
-
-        } catch (Exception e) {
-            System.err.println("Advertencia: No se pudo cargar la información guardada: " + e.getMessage());
+        } else {
+            try {
+                System.out.println("Recuperando datos desde el log de eventos...");
+                System.out.println("Recuperación completada: " + eventStore.recover());
+            } catch (Exception e) {
+                // Arrancar con un repositorio vacío dejaría un estado que no corresponde al historial guardado
+                System.err.println("Error: No se pudo recuperar el log de eventos, no se arranca para no perder el historial: " + e.getMessage());
+                return;
+            }
+        }
+        // Los equipos que aún no han jugado entran en el ranking con la puntuación inicial
+        memoryRepo.findAllTeams().forEach(team -> ratings.addTeam(team.getTeamId()));
+        if (firstRun) {
+            // Primer arranque: el estado importado pasa a ser el snapshot inicial
+            eventStore.snapshot();
         }
 
         /** Inicializar objetos*/
         EventBus eventBus = new EventBus();
-        TeamService teamService = new TeamServiceImpl(memoryRepo, memoryRepo, eventBus);
-        PlayerService playerService = new PlayerServiceImpl(memoryRepo, memoryRepo, eventBus);
+        // Estadísticas del bus visibles por JMX (jconsole / VisualVM)
+        eventBus.getStats().registerMBeans(EVENT_BUS_JMX_DOMAIN);
+        // Perfiles de ataque por equipo, compartidos por partidos, ligas y pronósticos
+        TeamProfileCache profileCache = new TeamProfileCache(memoryRepo, RATINGS_SET_ODDS ? ratings : null, FORM_SETS_ODDS);
+        // Partidos en segundo plano: un hilo por núcleo, los de un mismo equipo en orden
+        MatchScheduler matchScheduler = new MatchScheduler(Runtime.getRuntime().availableProcessors(), MATCH_QUEUE_CAPACITY);
+        // Las escrituras de cada unidad y sus eventos entran en el log en el mismo orden en que se aplican
+        TransactionService transactions = new TransactionServiceImpl(memoryRepo, memoryRepo, eventStore, eventBus);
+        // Estadísticas y altas en lote se aplican junto con su evento en el log: ni un snapshot ni la
+        // reproducción las ven sin él
+        TeamService teamService = new TeamServiceImpl(eventStore, memoryRepo, eventStore, eventBus, profileCache, matchScheduler, transactions);
+        PlayerService playerService = new PlayerServiceImpl(memoryRepo, memoryRepo, eventStore, eventBus, transactions);
+        LeagueService leagueService = new LeagueServiceImpl(eventStore, memoryRepo, eventBus, profileCache, matchHistory, ratings);
 
         /** UI controller*/
-        AppController controller = new AppController(teamService, playerService);
+        AppController controller = new AppController(teamService, playerService, leagueService);
 
         /** Registrar listeners*/
         UiEventListener uiEventListener = new UiEventListener();
@@ -76,28 +149,90 @@ public class Main {
                 memoryRepo,
                 serializer,
                 PERSISTENCE_DEBOUNCE_MS);
+        // Cola en memoria compartida para consumidores en otros procesos (opcional)
+        MappedEventQueuePublisher queuePublisher = null;
+        try {
+            queuePublisher = new MappedEventQueuePublisher(Path.of(EVENT_QUEUE_PATH), EVENT_QUEUE_CAPACITY);
+        } catch (IOException e) {
+            System.err.println("Advertencia: No se pudo abrir la cola de eventos compartida: " + e.getMessage());
+        }
 
-        /** Subscribir cada tipo de evento explicitamente*/
-        eventBus.subscribe(TeamCreatedEvent.class, uiEventListener);
-        eventBus.subscribe(TeamDeletedEvent.class, uiEventListener);
-        eventBus.subscribe(PlayerAddedToTeamEvent.class, uiEventListener);
-        eventBus.subscribe(PlayerDeletedFromTeamEvent.class, uiEventListener);
-        eventBus.subscribe(MatchSimulatedEvent.class, uiEventListener);
+        /** Subscribir cada tipo de evento explicitamente: feedback en el carril prioritario, disco en el de fondo*/
+        // El log de eventos va primero y en línea para conservar el orden de publicación; si no puede escribir, la operación falla
+        eventBus.subscribe(TeamCreatedEvent.class, eventStore, Delivery.REQUIRED);
+        eventBus.subscribe(TeamDeletedEvent.class, eventStore, Delivery.REQUIRED);
+        eventBus.subscribe(PlayerAddedToTeamEvent.class, eventStore, Delivery.REQUIRED);
+        eventBus.subscribe(PlayerDeletedFromTeamEvent.class, eventStore, Delivery.REQUIRED);
+        eventBus.subscribe(MatchSimulatedEvent.class, eventStore, Delivery.REQUIRED);
+        eventBus.subscribe(RosterImportedEvent.class, eventStore, Delivery.REQUIRED);
+
+        // Un cambio de plantilla invalida el perfil antes de que se simule otro partido
+        eventBus.subscribe(PlayerAddedToTeamEvent.class, profileCache, Delivery.INLINE);
+        eventBus.subscribe(PlayerDeletedFromTeamEvent.class, profileCache, Delivery.INLINE);
+        eventBus.subscribe(TeamDeletedEvent.class, profileCache, Delivery.INLINE);
+        eventBus.subscribe(RosterImportedEvent.class, profileCache, Delivery.INLINE);
+
+        if (queuePublisher != null) {
+            eventBus.subscribe(TeamCreatedEvent.class, queuePublisher, Delivery.INLINE);
+            eventBus.subscribe(TeamDeletedEvent.class, queuePublisher, Delivery.INLINE);
+            eventBus.subscribe(PlayerAddedToTeamEvent.class, queuePublisher, Delivery.INLINE);
+            eventBus.subscribe(PlayerDeletedFromTeamEvent.class, queuePublisher, Delivery.INLINE);
+            eventBus.subscribe(MatchSimulatedEvent.class, queuePublisher, Delivery.INLINE);
+            eventBus.subscribe(RosterImportedEvent.class, queuePublisher, Delivery.INLINE);
+        }
 
-        eventBus.subscribe(TeamCreatedEvent.class, persistenceListener);
-        eventBus.subscribe(TeamDeletedEvent.class, persistenceListener);
-        eventBus.subscribe(PlayerAddedToTeamEvent.class, persistenceListener);
-        eventBus.subscribe(PlayerDeletedFromTeamEvent.class, persistenceListener);
-        eventBus.subscribe(MatchSimulatedEvent.class, persistenceListener);
+        eventBus.subscribe(TeamCreatedEvent.class, uiEventListener, Delivery.HIGH_PRIORITY);
+        eventBus.subscribe(TeamDeletedEvent.class, uiEventListener, Delivery.HIGH_PRIORITY);
+        eventBus.subscribe(PlayerAddedToTeamEvent.class, uiEventListener, Delivery.HIGH_PRIORITY);
+        eventBus.subscribe(PlayerDeletedFromTeamEvent.class, uiEventListener, Delivery.HIGH_PRIORITY);
+        // Un lote o una liga publican cientos de partidos: la consola los recibe juntos y los resume.
+        // Cada partido es su propia clave, así que no se pierde ninguno; solo se agrupan las entregas
+        eventBus.subscribe(MatchSimulatedEvent.class, uiEventListener, Delivery.HIGH_PRIORITY,
+                Coalescing.latestPerKey(match -> match, UI_MATCH_WINDOW_MS));
+        eventBus.subscribe(RosterImportedEvent.class, uiEventListener, Delivery.HIGH_PRIORITY);
+
+        eventBus.subscribe(TeamCreatedEvent.class, persistenceListener, Delivery.LOW_PRIORITY);
+        eventBus.subscribe(TeamDeletedEvent.class, persistenceListener, Delivery.LOW_PRIORITY);
+        eventBus.subscribe(PlayerAddedToTeamEvent.class, persistenceListener, Delivery.LOW_PRIORITY);
+        eventBus.subscribe(PlayerDeletedFromTeamEvent.class, persistenceListener, Delivery.LOW_PRIORITY);
+        eventBus.subscribe(MatchSimulatedEvent.class, persistenceListener, Delivery.LOW_PRIORITY);
+        eventBus.subscribe(RosterImportedEvent.class, persistenceListener, Delivery.LOW_PRIORITY);
 
         /** Crea un menu con un hook de salida*/
+        MappedEventQueuePublisher sharedQueue = queuePublisher;
         ConsoleMenu menu = new ConsoleMenu(controller, () -> {
-            // on exit: flush pending saves and shut down listeners
+            // on exit: finish queued matches, flush pending saves and shut down listeners
+            matchScheduler.shutdown();
             persistenceListener.saveSnapshotNow();
             persistenceListener.shutdown();
             eventBus.shutdown();
+            eventStore.close();
+            if (sharedQueue != null) {
+                try {
+                    sharedQueue.close();
+                } catch (IOException e) {
+                    System.err.println("Error al cerrar la cola de eventos compartida: " + e.getMessage());
+                }
+            }
         });
         menu.runLoop();
         menu.close();
     }
+
+    /** Attempt to load data from JSON, falling back to CSV */
+    private static void loadFromFiles(SnapshotSerializer serializer, InMemoryTeamRepository memoryRepo) throws IOException {
+        System.out.println("Cargando datos...");
+        List<Team> loadedTeams = serializer.loadTeamsSnapshotFromJson();
+        List<Player> loadedPlayers = serializer.loadPlayersSnapshotFromJson();
+
+        if (loadedTeams.isEmpty() || loadedPlayers.isEmpty()) {
+            System.out.println("Datos JSON no encontrados o vacíos. Intentando cargar CSV...");
+            loadedTeams = serializer.loadTeamsSnapshotFromCsv();
+            loadedPlayers = serializer.loadPlayersSnapshotFromCsv();
+        }
+        // Persist loaded teams to repository
+        memoryRepo.saveTeams(loadedTeams);
+        memoryRepo.savePlayers(loadedPlayers);
+        System.out.println("Carga completada: " + loadedTeams.size() + " equipos y " + loadedPlayers.size() + " jugadores.");
+    }
 }
\ No newline at end of file
@@ -5,5 +5,7 @@ public enum DomainErrorCode {
     PLAYER_NOT_FOUND,
     INVALID_SQUAD_NUMBER,
     PERSISTENCE_ERROR,
-    VALIDATION_ERROR
+    VALIDATION_ERROR,
+    QUEUE_FULL,
+    CONCURRENT_MODIFICATION
 }
@@ -1,5 +1,7 @@
 package domain;
 
+import java.util.List;
+
 /**
  * A single domain exception used to signal all business rule violations or
  * persistence errors. An error code identifies the category of the problem
@@ -7,6 +9,7 @@ package domain;
  */
 public class DomainException extends RuntimeException {
     private final DomainErrorCode errorCode;
+    private final List<String> details;
 
     /**
      * Constructs a new domain exception with the given error code and message.
@@ -15,8 +18,21 @@ public class DomainException extends RuntimeException {
      * @param message   a human readable description of the problem
      */
     public DomainException(DomainErrorCode errorCode, String message) {
+        this(errorCode, message, List.of());
+    }
+
+    /**
+     * Constructs a new domain exception that reports several problems at
+     * once, e.g. every invalid entry of a bulk operation.
+     *
+     * @param errorCode the code representing the category of error
+     * @param message   a human readable summary of the problems
+     * @param details   one human readable description per problem
+     */
+    public DomainException(DomainErrorCode errorCode, String message, List<String> details) {
         super(message);
         this.errorCode = errorCode;
+        this.details = List.copyOf(details);
     }
 
     /**
@@ -26,6 +42,9 @@ public class DomainException extends RuntimeException {
      */
     public DomainErrorCode getErrorCode() { return this.errorCode; }
 
+    /** @return one description per problem; empty unless several problems were reported */
+    public List<String> getDetails() { return this.details; }
+
     @Override
     public String toString() {
         return this.errorCode + ": " + super.getMessage();
@@ -1,24 +1,44 @@
 package events;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
- * Event published when a match simulation has been completed.
+ * Event published when a match simulation has been completed. It carries the
+ * players who scored for each side so that the outcome can be re-applied
+ * deterministically when the event log is replayed, the seed the match
+ * was simulated with so that it can be played again exactly, and when it
+ * was played.
  */
 public class MatchSimulatedEvent implements DomainEvent {
     private final UUID teamAId, teamBId;
-    private final int goalsA,  goalsB;
+    private final List<UUID> scorersA, scorersB;
+    private final long seed;
+    private final long playedAt;
 
-    public MatchSimulatedEvent(UUID teamA, UUID teamB, int goalsA, int goalsB) {
+    /** Match played now. */
+    public MatchSimulatedEvent(UUID teamA, UUID teamB, List<UUID> scorersA, List<UUID> scorersB, long seed) {
+        this(teamA, teamB, scorersA, scorersB, seed, System.currentTimeMillis());
+    }
+
+    /** Constructor for matches read back from the log, with their original time. */
+    public MatchSimulatedEvent(UUID teamA, UUID teamB, List<UUID> scorersA, List<UUID> scorersB, long seed, long playedAt) {
         this.teamAId = teamA;
         this.teamBId = teamB;
-        this.goalsA = goalsA;
-        this.goalsB = goalsB;
+        this.scorersA = List.copyOf(scorersA);
+        this.scorersB = List.copyOf(scorersB);
+        this.seed = seed;
+        this.playedAt = playedAt;
     }
 
     public UUID getTeamAId() { return this.teamAId; }
     public UUID getTeamBId() { return this.teamBId; }
-    public int getGoalsA() { return this.goalsA; }
-    public int getGoalsB() { return this.goalsB; }
+    public int getGoalsA() { return this.scorersA.size(); }
+    public int getGoalsB() { return this.scorersB.size(); }
+    public List<UUID> getScorersA() { return this.scorersA; }
+    public List<UUID> getScorersB() { return this.scorersB; }
+    public long getSeed() { return this.seed; }
+    /** @return epoch milliseconds when the match was played */
+    public long getPlayedAt() { return this.playedAt; }
 
 }
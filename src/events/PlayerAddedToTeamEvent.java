@@ -3,20 +3,28 @@ package events;
 import java.util.UUID;
 
 /**
- * Event published when a new player has been added to a team.
+ * Event published when a new player has been added to a team. It carries the
+ * full player data so that the player can be rebuilt from the event log.
  */
 public class PlayerAddedToTeamEvent implements DomainEvent {
     private final UUID teamId, playerId;
-    private final int squadNumber;
+    private final String fullName, fieldLocation;
+    private final int birthYear, squadNumber;
 
-    public PlayerAddedToTeamEvent(UUID teamId, UUID playerId, int squadNumber) {
+    public PlayerAddedToTeamEvent(UUID teamId, UUID playerId, String fullName, int birthYear, String fieldLocation, int squadNumber) {
         this.teamId = teamId;
         this.playerId = playerId;
+        this.fullName = fullName;
+        this.birthYear = birthYear;
+        this.fieldLocation = fieldLocation;
         this.squadNumber = squadNumber;
     }
 
     public UUID getTeamId() { return this.teamId; }
     public UUID getPlayerId() { return this.playerId; }
+    public String getFullName() { return this.fullName; }
+    public int getBirthYear() { return this.birthYear; }
+    public String getFieldLocation() { return this.fieldLocation; }
     public int getSquadNumber() { return this.squadNumber; }
 
 }
@@ -0,0 +1,31 @@
+package events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event published once per bulk operation instead of one event per created
+ * team or added player. It carries the full data of every team and player,
+ * in the shape of the fine-grained events, so that the whole import can be
+ * rebuilt from the event log.
+ */
+public class RosterImportedEvent implements DomainEvent {
+    private final List<TeamCreatedEvent> teams;
+    private final List<PlayerAddedToTeamEvent> players;
+
+    public RosterImportedEvent(List<TeamCreatedEvent> teams, List<PlayerAddedToTeamEvent> players) {
+        this.teams = List.copyOf(teams);
+        this.players = List.copyOf(players);
+    }
+
+    public List<TeamCreatedEvent> getTeams() { return this.teams; }
+    public List<PlayerAddedToTeamEvent> getPlayers() { return this.players; }
+
+    /** @return the equivalent fine-grained events: every team first, then every player */
+    public List<DomainEvent> toEvents() {
+        List<DomainEvent> events = new ArrayList<>(teams.size() + players.size());
+        events.addAll(teams);
+        events.addAll(players);
+        return events;
+    }
+}
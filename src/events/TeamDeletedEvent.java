@@ -1,19 +1,30 @@
 package events;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
- * Event published when a team has been removed from the system.
+ * Event published when a team has been removed from the system, together
+ * with its players: one event for the whole roster, instead of one
+ * {@link PlayerDeletedFromTeamEvent} per player.
  */
 public class TeamDeletedEvent implements DomainEvent {
     private final UUID teamId;
     private final String name;
+    private final List<UUID> playerIds;
 
-    public TeamDeletedEvent(UUID teamId, String name) {
+    /**
+     * @param teamId    the team removed
+     * @param name      its name
+     * @param playerIds the players removed with it; empty in events logged before they were recorded
+     */
+    public TeamDeletedEvent(UUID teamId, String name, List<UUID> playerIds) {
         this.teamId = teamId;
         this.name = name;
+        this.playerIds = List.copyOf(playerIds);
     }
 
     public UUID getTeamId() { return this.teamId; }
     public String getName() { return this.name; }
+    public List<UUID> getPlayerIds() { return this.playerIds; }
 }
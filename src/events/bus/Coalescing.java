@@ -0,0 +1,54 @@
+package events.bus;
+
+import events.DomainEvent;
+
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Opt-in coalescing policy for a subscription. Events published within the
+ * window that share the same key are merged into one before the listener
+ * sees them, and everything collected during the window is delivered in a
+ * single {@link DomainEventListener#onEvents} call. Typical uses are
+ * "latest state wins" streams and "team X changed" notifications where the
+ * subscriber does not care how many times something changed.
+ *
+ * @param <E> the type of event being coalesced
+ */
+public final class Coalescing<E extends DomainEvent> {
+    private final Function<? super E, ?> key;
+    private final BinaryOperator<E> merge;
+    private final long windowMillis;
+
+    private Coalescing(Function<? super E, ?> key, BinaryOperator<E> merge, long windowMillis) {
+        if (windowMillis <= 0) throw new IllegalArgumentException("La ventana de agrupación debe ser positiva.");
+        this.key = key;
+        this.merge = merge;
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Keeps only the most recent event per key; earlier ones are superseded.
+     *
+     * @param key          extracts the coalescing key (e.g. the team id)
+     * @param windowMillis how long events are collected before delivery
+     */
+    public static <E extends DomainEvent> Coalescing<E> latestPerKey(Function<? super E, ?> key, long windowMillis) {
+        return new Coalescing<>(key, (older, newer) -> newer, windowMillis);
+    }
+
+    /**
+     * Combines events with the same key using the given merge function.
+     *
+     * @param key          extracts the coalescing key
+     * @param merge        combines the pending event (first argument) with a newer one
+     * @param windowMillis how long events are collected before delivery
+     */
+    public static <E extends DomainEvent> Coalescing<E> merging(Function<? super E, ?> key, BinaryOperator<E> merge, long windowMillis) {
+        return new Coalescing<>(key, merge, windowMillis);
+    }
+
+    Object keyOf(E event) { return key.apply(event); }
+    E merge(E pending, E newer) { return merge.apply(pending, newer); }
+    long getWindowMillis() { return windowMillis; }
+}
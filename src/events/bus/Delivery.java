@@ -0,0 +1,20 @@
+package events.bus;
+
+/**
+ * Delivery mode chosen at subscribe time. It decides on which thread a
+ * listener is invoked when a matching event is published.
+ */
+public enum Delivery {
+    /** Invoked synchronously on the publishing thread. Only for cheap, non-blocking listeners. */
+    INLINE,
+    /**
+     * Invoked synchronously on the publishing thread like {@link #INLINE}, but an exception stops the
+     * publish and reaches the publisher. Only for listeners the operation cannot succeed without, such
+     * as the event log.
+     */
+    REQUIRED,
+    /** Invoked on the high-priority lane. Intended for operator-facing feedback (console, UI). */
+    HIGH_PRIORITY,
+    /** Invoked on the low-priority lane. Intended for bulk work such as persistence or analytics. */
+    LOW_PRIORITY
+}
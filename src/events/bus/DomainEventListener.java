@@ -2,6 +2,8 @@ package events.bus;
 
 import events.DomainEvent;
 
+import java.util.List;
+
 /**
  * Generic listener interface for domain events. Implementations of this
  * interface can be registered with the EventBus to receive events of a
@@ -11,4 +13,18 @@ import events.DomainEvent;
  */
 public interface DomainEventListener<E extends DomainEvent> {
     void onEvent(E event);
+
+    /**
+     * Receives several events in one call, in publish order. The bus uses it
+     * for {@link EventBus#publishAll} and for coalesced subscriptions. The
+     * default delivers them one by one; listeners that can handle a batch
+     * more cheaply (one save, one summary line) should override it.
+     *
+     * @param events the events, never empty
+     */
+    default void onEvents(List<? extends E> events) {
+        for (E event : events) {
+            onEvent(event);
+        }
+    }
 }
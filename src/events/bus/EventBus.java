@@ -2,58 +2,212 @@ package events.bus;
 
 import events.DomainEvent;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Simple asynchronous event bus implementation. Listeners can subscribe to
- * specific event types, and when an event is published all matching
- * listeners will be invoked asynchronously on a thread pool. The event bus
- * keeps references to listeners for the lifetime of the application.
+ * Simple event bus implementation. Listeners can subscribe to specific event
+ * types, and when an event is published all matching listeners will be
+ * invoked according to the {@link Delivery} mode chosen at subscribe time:
+ * inline on the publishing thread, or asynchronously on one of two lanes.
+ * Each lane has its own threads and its own bounded queue, so slow bulk work
+ * on the low-priority lane never delays operator feedback on the
+ * high-priority lane. When a lane's queue is full the publisher runs the
+ * listener itself, which acts as back-pressure instead of dropping events.
+ * Every publish and delivery is measured; see {@link #getStats()}. Exceptions
+ * thrown by listeners are counted, kept as the listener's last error and
+ * reported on standard error instead of being lost; those of a
+ * {@link Delivery#REQUIRED} listener are also rethrown to the publisher.
+ * Bulk operations can hand several events to {@link #publishAll}, which
+ * costs each listener one call for the whole batch, and subscriptions can
+ * opt into {@link Coalescing} so that high-rate events are merged per key
+ * within a time window.
+ * The event bus keeps references to listeners for the lifetime of the
+ * application.
  */
 public class EventBus {
-    private final Map<Class<? extends DomainEvent>, List<DomainEventListener<? super DomainEvent>>> listeners = new ConcurrentHashMap<>();
-    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    // --- CONFIGURACIÓN POR DEFECTO DE LOS CARRILES ---
+    private static final int DEFAULT_HIGH_THREADS = 1;
+    private static final int DEFAULT_HIGH_CAPACITY = 1_024;
+    private static final int DEFAULT_LOW_THREADS = 1;
+    private static final int DEFAULT_LOW_CAPACITY = 16_384;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final Map<Class<? extends DomainEvent>, List<Subscription>> listeners = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor highLane;
+    private final ThreadPoolExecutor lowLane;
+    private final EventBusStats stats;
+    private final ScheduledExecutorService coalescingTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-bus-coalescing");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Coalescer> coalescers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an event bus with a single-threaded high-priority lane (which
+     * keeps console feedback in publish order) and a single-threaded
+     * low-priority lane.
+     */
+    public EventBus() {
+        this(DEFAULT_HIGH_THREADS, DEFAULT_HIGH_CAPACITY, DEFAULT_LOW_THREADS, DEFAULT_LOW_CAPACITY);
+    }
 
     /**
-     * Subscribes the given listener to the specified type of event.
+     * Creates an event bus with explicitly sized lanes.
+     *
+     * @param highThreads  number of threads serving the high-priority lane
+     * @param highCapacity maximum number of queued deliveries on the high-priority lane
+     * @param lowThreads   number of threads serving the low-priority lane
+     * @param lowCapacity  maximum number of queued deliveries on the low-priority lane
+     */
+    public EventBus(int highThreads, int highCapacity, int lowThreads, int lowCapacity) {
+        this.highLane = newLane("event-bus-high", highThreads, highCapacity, Thread.NORM_PRIORITY + 2);
+        this.lowLane = newLane("event-bus-low", lowThreads, lowCapacity, Thread.NORM_PRIORITY - 2);
+        this.stats = new EventBusStats(highLane, lowLane);
+        RejectedExecutionHandler callerRuns = (task, executor) -> {
+            if (!executor.isShutdown()) {
+                stats.recordCallerRuns();
+                task.run();
+            }
+        };
+        this.highLane.setRejectedExecutionHandler(callerRuns);
+        this.lowLane.setRejectedExecutionHandler(callerRuns);
+    }
+
+    /**
+     * Returns the instrumentation surface of this bus: lane gauges, per-event
+     * type counters and per-listener counters and latencies.
+     *
+     * @return the live statistics of this bus
+     */
+    public EventBusStats getStats() { return stats; }
+
+    /**
+     * Subscribes the given listener to the specified type of event. The
+     * listener is delivered on the low-priority lane.
      *
      * @param eventType the type of event to listen for
      * @param listener  the listener to notify when events of the given type are published
      * @param <E>       the generic event type
      */
     public <E extends DomainEvent> void subscribe(Class<E> eventType, DomainEventListener<? super E> listener) {
-        listeners.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>()).add((DomainEventListener<? super DomainEvent>) listener);
+        subscribe(eventType, listener, Delivery.LOW_PRIORITY);
+    }
+
+    /**
+     * Subscribes the given listener to the specified type of event using the
+     * given delivery mode.
+     *
+     * @param eventType the type of event to listen for
+     * @param listener  the listener to notify when events of the given type are published
+     * @param delivery  how (and on which lane) the listener is invoked
+     * @param <E>       the generic event type
+     */
+    public <E extends DomainEvent> void subscribe(Class<E> eventType, DomainEventListener<? super E> listener, Delivery delivery) {
+        register(eventType, listener, delivery, null);
+    }
+
+    /**
+     * Subscribes the given listener with a coalescing policy: events are
+     * buffered for the policy's window, merged per key, and then delivered
+     * as one batch according to {@code delivery}.
+     *
+     * @param eventType  the type of event to listen for
+     * @param listener   the listener to notify with the coalesced batch
+     * @param delivery   how (and on which lane) the batch is delivered
+     * @param coalescing how events are keyed, merged and for how long they are collected
+     * @param <E>        the generic event type
+     */
+    public <E extends DomainEvent> void subscribe(Class<E> eventType, DomainEventListener<? super E> listener, Delivery delivery,
+                                                  Coalescing<E> coalescing) {
+        register(eventType, listener, delivery, coalescing);
     }
 
     /**
      * Publishes the given event to all listeners that have subscribed to the
-     * event's class. Delivery is asynchronous.
+     * event's class. Inline listeners run before this method returns; the
+     * rest are queued on their lane. {@link Delivery#REQUIRED} listeners run
+     * first: if one fails, no other listener has been told of the event.
      *
      * @param event the event to publish
      */
     public void publish(DomainEvent event) {
-        Class<? extends DomainEvent> eventClass = event.getClass();
-        // Deliver to listeners registered exactly for this event class
-        List<DomainEventListener<? super DomainEvent>> registered = listeners.get(eventClass);
-        if (registered != null) {
-            for (DomainEventListener<? super DomainEvent> listener : registered) {
-                // Capture listener and event in final variables for lambda
-                executor.submit(() -> {
-                    try {
-                        @SuppressWarnings("unchecked")
-                        DomainEventListener<DomainEvent> l = (DomainEventListener<DomainEvent>) listener;
-                        l.onEvent(event);
-                    } catch (ClassCastException e) {
-                        // Shouldn't happen because of type erasure; silently ignore
-                    }
-                });
+        List<Subscription> registered = subscriptionsFor(event);
+        if (registered == null) {
+            return;
+        }
+        long publishedAt = System.nanoTime();
+        for (Subscription subscription : registered) {
+            if (subscription.delivery == Delivery.REQUIRED) {
+                dispatch(subscription, List.of(event), publishedAt);
+            }
+        }
+        for (Subscription subscription : registered) {
+            if (subscription.delivery == Delivery.REQUIRED) {
+                continue;
+            }
+            if (subscription.coalescer != null) {
+                subscription.coalescer.add(event, publishedAt);
+            } else {
+                dispatch(subscription, List.of(event), publishedAt);
+            }
+        }
+    }
+
+    /**
+     * Publishes a batch of events produced by one bulk operation or unit of
+     * work. Every listener receives all the events it subscribed to in a
+     * single {@link DomainEventListener#onEvents} call, in the given order,
+     * instead of one invocation per event, even when the batch mixes event
+     * types the listener subscribed to separately with the same delivery.
+     * As in {@link #publish}, the {@link Delivery#REQUIRED} listeners get the
+     * batch first, and the coalescing subscriptions and the other listeners
+     * only once they have all succeeded.
+     *
+     * @param events the events to publish
+     */
+    public void publishAll(Collection<? extends DomainEvent> events) {
+        long publishedAt = System.nanoTime();
+        // Keyed by listener and delivery, in the order they are first met, so inline listeners keep their order
+        Map<List<Object>, Subscription> targets = new LinkedHashMap<>();
+        Map<Subscription, List<DomainEvent>> batches = new LinkedHashMap<>();
+        Map<Subscription, List<DomainEvent>> coalesced = new LinkedHashMap<>();
+        for (DomainEvent event : events) {
+            List<Subscription> registered = subscriptionsFor(event);
+            if (registered == null) continue;
+            for (Subscription subscription : registered) {
+                if (subscription.coalescer != null) {
+                    coalesced.computeIfAbsent(subscription, k -> new ArrayList<>()).add(event);
+                } else {
+                    Subscription target = targets.computeIfAbsent(List.of(subscription.listener, subscription.delivery),
+                            k -> subscription);
+                    batches.computeIfAbsent(target, k -> new ArrayList<>()).add(event);
+                }
             }
         }
+        batches.forEach((subscription, batch) -> {
+            if (subscription.delivery == Delivery.REQUIRED) dispatch(subscription, batch, publishedAt);
+        });
+        batches.forEach((subscription, batch) -> {
+            if (subscription.delivery != Delivery.REQUIRED) dispatch(subscription, batch, publishedAt);
+        });
+        coalesced.forEach((subscription, batch) -> batch.forEach(event -> subscription.coalescer.add(event, publishedAt)));
     }
 
     /**
@@ -62,6 +216,144 @@ public class EventBus {
      * application is exiting to allow asynchronous tasks to complete.
      */
     public void shutdown() {
-        executor.shutdown();
+        coalescingTimer.shutdownNow();
+        coalescers.forEach(Coalescer::flush);
+        highLane.shutdown();
+        lowLane.shutdown();
+        try {
+            highLane.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            lowLane.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- UTILIDADES ---
+    @SuppressWarnings("unchecked")
+    private void register(Class<? extends DomainEvent> eventType, DomainEventListener<?> listener, Delivery delivery,
+                          Coalescing<?> coalescing) {
+        if (coalescing != null && delivery == Delivery.REQUIRED) {
+            // A coalesced batch is delivered by the timer, with no publisher left to fail
+            throw new IllegalArgumentException("Una suscripción REQUIRED no puede agrupar eventos.");
+        }
+        Subscription subscription = new Subscription((DomainEventListener<? super DomainEvent>) listener, delivery,
+                stats.forSubscription(listener, eventType, delivery), (Coalescing<DomainEvent>) coalescing);
+        if (subscription.coalescer != null) {
+            coalescers.add(subscription.coalescer);
+        }
+        listeners.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>()).add(subscription);
+    }
+
+    /** Returns the subscriptions registered exactly for the event's class and counts the publish. */
+    private List<Subscription> subscriptionsFor(DomainEvent event) {
+        Class<? extends DomainEvent> eventClass = event.getClass();
+        stats.forEventType(eventClass).recordPublished();
+        return listeners.get(eventClass);
+    }
+
+    private void dispatch(Subscription subscription, List<DomainEvent> batch, long publishedAt) {
+        switch (subscription.delivery) {
+            case INLINE, REQUIRED -> deliver(subscription, batch, publishedAt);
+            case HIGH_PRIORITY -> highLane.execute(() -> deliver(subscription, batch, publishedAt));
+            case LOW_PRIORITY -> lowLane.execute(() -> deliver(subscription, batch, publishedAt));
+        }
+    }
+
+    private void deliver(Subscription subscription, List<DomainEvent> batch, long publishedAt) {
+        long start = System.nanoTime();
+        for (DomainEvent event : batch) {
+            stats.forEventType(event.getClass()).recordDelivery(start - publishedAt);
+        }
+        subscription.stats.recordStart();
+        Throwable error = null;
+        try {
+            @SuppressWarnings("unchecked")
+            DomainEventListener<DomainEvent> l = (DomainEventListener<DomainEvent>) subscription.listener;
+            if (batch.size() == 1) {
+                l.onEvent(batch.get(0));
+            } else {
+                l.onEvents(batch);
+            }
+        } catch (RuntimeException e) {
+            error = e;
+            if (subscription.delivery == Delivery.REQUIRED) throw e;
+            System.err.println("[EventBus] Error en " + subscription.stats.getListener() + " al procesar "
+                    + batch.size() + " evento(s) " + batch.get(0).getClass().getSimpleName() + ": " + e);
+        } finally {
+            subscription.stats.recordEnd(System.nanoTime() - start, error);
+        }
+    }
+
+    private static ThreadPoolExecutor newLane(String name, int threads, int capacity, int priority) {
+        if (threads < 1 || capacity < 1) {
+            throw new IllegalArgumentException("El carril " + name + " necesita al menos un hilo y capacidad positiva.");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setPriority(priority);
+            return thread;
+        };
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity), factory);
+    }
+
+    /** A listener together with the delivery mode and statistics it was registered with. */
+    private final class Subscription {
+        private final DomainEventListener<? super DomainEvent> listener;
+        private final Delivery delivery;
+        private final ListenerStats stats;
+        private final Coalescer coalescer;
+
+        private Subscription(DomainEventListener<? super DomainEvent> listener, Delivery delivery, ListenerStats stats,
+                             Coalescing<DomainEvent> coalescing) {
+            this.listener = listener;
+            this.delivery = delivery;
+            this.stats = stats;
+            this.coalescer = coalescing == null ? null : new Coalescer(coalescing, this);
+        }
+    }
+
+    /**
+     * Buffer of a coalescing subscription. The first event of a window arms
+     * a timer; when it fires the merged events are dispatched as one batch.
+     */
+    private final class Coalescer {
+        private final Coalescing<DomainEvent> policy;
+        private final Map<Object, DomainEvent> pending = new LinkedHashMap<>();
+        private final Subscription target;
+        private long windowStartedAt;
+
+        private Coalescer(Coalescing<DomainEvent> policy, Subscription target) {
+            this.policy = policy;
+            this.target = target;
+        }
+
+        private synchronized void add(DomainEvent event, long publishedAt) {
+            if (pending.isEmpty()) {
+                windowStartedAt = publishedAt;
+                try {
+                    coalescingTimer.schedule(this::flush, policy.getWindowMillis(), TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Bus shutting down: deliver right away instead of losing the event
+                    pending.put(policy.keyOf(event), event);
+                    flush();
+                    return;
+                }
+            }
+            pending.merge(policy.keyOf(event), event, policy::merge);
+        }
+
+        private void flush() {
+            List<DomainEvent> batch;
+            long startedAt;
+            synchronized (this) {
+                if (pending.isEmpty()) return;
+                batch = new ArrayList<>(pending.values());
+                startedAt = windowStartedAt;
+                pending.clear();
+            }
+            dispatch(target, batch, startedAt);
+        }
     }
 }
@@ -0,0 +1,134 @@
+package events.bus;
+
+import events.DomainEvent;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instrumentation surface of an {@link EventBus}. Holds the per-event-type
+ * and per-subscription statistics plus live gauges of both lanes. Each
+ * subscription gets its own {@link ListenerStats} under a unique name, so
+ * two lambdas or two instances of one listener class are never counted
+ * together nor registered under the same MBean name. Everything is
+ * readable through this class and, once {@link #registerMBeans(String)} has
+ * been called, through the platform MBean server.
+ */
+public class EventBusStats implements EventBusStatsMXBean {
+    private final ThreadPoolExecutor highLane;
+    private final ThreadPoolExecutor lowLane;
+    private final Map<Class<? extends DomainEvent>, EventTypeStats> eventTypes = new ConcurrentHashMap<>();
+    private final Map<String, ListenerStats> listeners = new ConcurrentHashMap<>();
+    private final LongAdder callerRuns = new LongAdder();
+    private volatile String jmxDomain;
+
+    EventBusStats(ThreadPoolExecutor highLane, ThreadPoolExecutor lowLane) {
+        this.highLane = highLane;
+        this.lowLane = lowLane;
+    }
+
+    /**
+     * Registers this bus and every known (and future) event type and
+     * listener as MBeans under the given JMX domain.
+     *
+     * @param domain the JMX domain, e.g. {@code "soccer.events"}
+     */
+    public void registerMBeans(String domain) {
+        this.jmxDomain = domain;
+        register(this, "type=EventBus");
+        eventTypes.values().forEach(this::register);
+        listeners.values().forEach(this::register);
+    }
+
+    /** @return per-event-type statistics keyed by event class simple name */
+    public Map<String, EventTypeStats> getEventTypeStats() {
+        Map<String, EventTypeStats> view = new ConcurrentHashMap<>();
+        eventTypes.forEach((type, stats) -> view.put(type.getSimpleName(), stats));
+        return Collections.unmodifiableMap(view);
+    }
+
+    /** @return per-subscription statistics keyed by subscription name, see {@link ListenerStats#getListener()} */
+    public Map<String, ListenerStats> getListenerStats() {
+        return Collections.unmodifiableMap(listeners);
+    }
+
+    // --- GAUGES ---
+    @Override public int getHighLaneQueueDepth() { return highLane.getQueue().size(); }
+    @Override public int getHighLaneActiveThreads() { return highLane.getActiveCount(); }
+    @Override public int getLowLaneQueueDepth() { return lowLane.getQueue().size(); }
+    @Override public int getLowLaneActiveThreads() { return lowLane.getActiveCount(); }
+    @Override public long getInFlight() { return listeners.values().stream().mapToLong(ListenerStats::getInFlight).sum(); }
+    @Override public long getFailures() { return listeners.values().stream().mapToLong(ListenerStats::getFailures).sum(); }
+    @Override public long getCallerRunsDeliveries() { return callerRuns.sum(); }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Carril alto: cola=").append(getHighLaneQueueDepth()).append(", activos=").append(getHighLaneActiveThreads())
+                .append(" | Carril bajo: cola=").append(getLowLaneQueueDepth()).append(", activos=").append(getLowLaneActiveThreads())
+                .append(" | En curso=").append(getInFlight())
+                .append(", errores=").append(getFailures())
+                .append(", ejecutados por el publicador=").append(getCallerRunsDeliveries());
+        eventTypes.values().forEach(s -> sb.append(System.lineSeparator()).append("  ").append(s));
+        listeners.values().forEach(s -> sb.append(System.lineSeparator()).append("  ").append(s));
+        return sb.toString();
+    }
+
+    // --- REGISTRO INTERNO (usado por EventBus) ---
+    EventTypeStats forEventType(Class<? extends DomainEvent> eventType) {
+        return eventTypes.computeIfAbsent(eventType, type -> {
+            EventTypeStats stats = new EventTypeStats(type.getSimpleName());
+            register(stats);
+            return stats;
+        });
+    }
+
+    /**
+     * Creates the statistics of a new subscription. The name is made unique
+     * with a {@code #n} suffix if another subscription already uses it.
+     */
+    ListenerStats forSubscription(DomainEventListener<?> listener, Class<? extends DomainEvent> eventType, Delivery delivery) {
+        String type = listener.getClass().getSimpleName();
+        if (type.isEmpty()) type = listener.getClass().getName();
+        String base = type + "[" + eventType.getSimpleName() + ", " + delivery + "]";
+        String name = base;
+        ListenerStats stats = new ListenerStats(name);
+        for (int n = 2; listeners.putIfAbsent(name, stats) != null; n++) {
+            name = base + " #" + n;
+            stats = new ListenerStats(name);
+        }
+        register(stats);
+        return stats;
+    }
+
+    void recordCallerRuns() { callerRuns.increment(); }
+
+    private void register(EventTypeStats stats) {
+        register(stats, "type=EventType,name=" + ObjectName.quote(stats.getEventType()));
+    }
+
+    private void register(ListenerStats stats) {
+        register(stats, "type=Listener,name=" + ObjectName.quote(stats.getListener()));
+    }
+
+    private void register(Object mbean, String properties) {
+        String domain = this.jmxDomain;
+        if (domain == null) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(domain + ":" + properties);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(mbean, name);
+            }
+        } catch (JMException e) {
+            System.err.println("No se pudo registrar el MBean " + properties + ": " + e.getMessage());
+        }
+    }
+}
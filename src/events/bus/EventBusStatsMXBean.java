@@ -0,0 +1,14 @@
+package events.bus;
+
+/**
+ * JMX view of the {@link EventBus} as a whole: lane gauges and totals.
+ */
+public interface EventBusStatsMXBean {
+    int getHighLaneQueueDepth();
+    int getHighLaneActiveThreads();
+    int getLowLaneQueueDepth();
+    int getLowLaneActiveThreads();
+    long getInFlight();
+    long getFailures();
+    long getCallerRunsDeliveries();
+}
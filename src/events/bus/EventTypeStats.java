@@ -0,0 +1,36 @@
+package events.bus;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one event type: how many events were published and how long
+ * each delivery waited between {@code publish} and the start of the listener
+ * call (i.e. time spent queued on a lane).
+ */
+public class EventTypeStats implements EventTypeStatsMXBean {
+    private final String eventType;
+    private final LongAdder published = new LongAdder();
+    private final LatencyHistogram deliveryLatency = new LatencyHistogram();
+
+    EventTypeStats(String eventType) {
+        this.eventType = eventType;
+    }
+
+    void recordPublished() { published.increment(); }
+    void recordDelivery(long queuedNanos) { deliveryLatency.record(queuedNanos); }
+
+    public LatencyHistogram getDeliveryLatency() { return deliveryLatency; }
+
+    @Override public String getEventType() { return eventType; }
+    @Override public long getPublished() { return published.sum(); }
+    @Override public long getDeliveries() { return deliveryLatency.getCount(); }
+    @Override public double getDeliveryLatencyMeanMicros() { return deliveryLatency.getMeanMicros(); }
+    @Override public double getDeliveryLatencyP50Micros() { return deliveryLatency.getPercentileMicros(0.50); }
+    @Override public double getDeliveryLatencyP99Micros() { return deliveryLatency.getPercentileMicros(0.99); }
+    @Override public double getDeliveryLatencyMaxMicros() { return deliveryLatency.getMaxMicros(); }
+
+    @Override
+    public String toString() {
+        return eventType + ": publicados=" + getPublished() + ", espera en cola [" + deliveryLatency + "]";
+    }
+}
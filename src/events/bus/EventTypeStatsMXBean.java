@@ -0,0 +1,14 @@
+package events.bus;
+
+/**
+ * JMX view of the counters kept by the {@link EventBus} for one event type.
+ */
+public interface EventTypeStatsMXBean {
+    String getEventType();
+    long getPublished();
+    long getDeliveries();
+    double getDeliveryLatencyMeanMicros();
+    double getDeliveryLatencyP50Micros();
+    double getDeliveryLatencyP99Micros();
+    double getDeliveryLatencyMaxMicros();
+}
@@ -0,0 +1,75 @@
+package events.bus;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power-of-two microsecond buckets. Bucket
+ * {@code i} counts samples in {@code [2^(i-1), 2^i)} microseconds (bucket 0
+ * holds everything below one microsecond), which keeps recording to a couple
+ * of atomic adds and gives percentiles within a factor of two.
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one sample.
+     *
+     * @param nanos the measured duration in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        long micros = nanos / 1_000;
+        int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() { return count.sum(); }
+
+    public double getMeanMicros() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : totalNanos.sum() / 1_000.0 / n;
+    }
+
+    public double getMaxMicros() { return maxNanos.get() / 1_000.0; }
+
+    /**
+     * Returns an upper bound of the given quantile, in microseconds.
+     *
+     * @param quantile a value between 0 and 1 (e.g. 0.99)
+     * @return the upper edge of the bucket holding the quantile, or 0 if empty
+     */
+    public double getPercentileMicros(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) return 0.0;
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(1L << i, getMaxMicros());
+            }
+        }
+        return getMaxMicros();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d media=%.1fus p50=%.0fus p99=%.0fus max=%.1fus",
+                getCount(), getMeanMicros(), getPercentileMicros(0.50), getPercentileMicros(0.99), getMaxMicros());
+    }
+}
@@ -0,0 +1,52 @@
+package events.bus;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters for one subscription of a listener: invocations, failures, calls
+ * currently running and time spent inside {@code onEvent}. A batch that
+ * {@link EventBus#publishAll} merges across several subscriptions of the
+ * same listener is counted once, on the first of them. The last exception thrown by the
+ * listener is kept so that failures are no longer silently lost.
+ */
+public class ListenerStats implements ListenerStatsMXBean {
+    private final String listener;
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final LatencyHistogram handlingTime = new LatencyHistogram();
+    private volatile Throwable lastError;
+
+    ListenerStats(String listener) {
+        this.listener = listener;
+    }
+
+    void recordStart() { inFlight.incrementAndGet(); }
+
+    void recordEnd(long handlingNanos, Throwable error) {
+        inFlight.decrementAndGet();
+        handlingTime.record(handlingNanos);
+        if (error != null) {
+            failures.increment();
+            lastError = error;
+        }
+    }
+
+    public LatencyHistogram getHandlingTime() { return handlingTime; }
+    public Throwable getLastThrowable() { return lastError; }
+
+    @Override public String getListener() { return listener; }
+    @Override public long getInvocations() { return handlingTime.getCount(); }
+    @Override public long getFailures() { return failures.sum(); }
+    @Override public long getInFlight() { return inFlight.get(); }
+    @Override public String getLastError() { return lastError == null ? "" : lastError.toString(); }
+    @Override public double getHandlingTimeMeanMicros() { return handlingTime.getMeanMicros(); }
+    @Override public double getHandlingTimeP50Micros() { return handlingTime.getPercentileMicros(0.50); }
+    @Override public double getHandlingTimeP99Micros() { return handlingTime.getPercentileMicros(0.99); }
+    @Override public double getHandlingTimeMaxMicros() { return handlingTime.getMaxMicros(); }
+
+    @Override
+    public String toString() {
+        return listener + ": errores=" + getFailures() + ", en curso=" + getInFlight() + ", tiempo en listener [" + handlingTime + "]";
+    }
+}
@@ -0,0 +1,17 @@
+package events.bus;
+
+/**
+ * JMX view of the counters kept by the {@link EventBus} for one listener.
+ */
+public interface ListenerStatsMXBean {
+    /** @return the subscription's name: listener class, event type and delivery */
+    String getListener();
+    long getInvocations();
+    long getFailures();
+    long getInFlight();
+    String getLastError();
+    double getHandlingTimeMeanMicros();
+    double getHandlingTimeP50Micros();
+    double getHandlingTimeP99Micros();
+    double getHandlingTimeMaxMicros();
+}
@@ -0,0 +1,43 @@
+package model;
+
+import java.util.UUID;
+
+/**
+ * One result of the match history: who played, the score and when. Instances
+ * are materialised from the columnar store only when a query returns them.
+ */
+public class MatchRecord {
+    private final UUID homeTeamId, awayTeamId;
+    private final int homeGoals, awayGoals;
+    private final long playedAt;
+
+    public MatchRecord(UUID homeTeamId, UUID awayTeamId, int homeGoals, int awayGoals, long playedAt) {
+        this.homeTeamId = homeTeamId;
+        this.awayTeamId = awayTeamId;
+        this.homeGoals = homeGoals;
+        this.awayGoals = awayGoals;
+        this.playedAt = playedAt;
+    }
+
+    // -------- GETTERS --------
+    public UUID getHomeTeamId() { return this.homeTeamId; }
+    public UUID getAwayTeamId() { return this.awayTeamId; }
+    public int getHomeGoals() { return this.homeGoals; }
+    public int getAwayGoals() { return this.awayGoals; }
+    /** @return epoch milliseconds when the match was played */
+    public long getPlayedAt() { return this.playedAt; }
+
+    /** @return the winning team, or {@code null} for a draw */
+    public UUID getWinnerId() {
+        if (homeGoals == awayGoals) return null;
+        return homeGoals > awayGoals ? homeTeamId : awayTeamId;
+    }
+
+    /**
+     * @param teamId one of the two teams
+     * @return the other team
+     */
+    public UUID getOpponentOf(UUID teamId) {
+        return homeTeamId.equals(teamId) ? awayTeamId : homeTeamId;
+    }
+}
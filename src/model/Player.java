@@ -3,33 +3,77 @@ package model;
 import domain.DomainErrorCode;
 import domain.DomainException;
 
+import util.IdUtils;
+import util.StringDictionary;
+
 import java.util.UUID;
 import java.time.Year;
 
 /**
  * Representa un jugador de fútbol con identificador único, nombre, edad y puntuación.
+ * <p>
+ * Immutable: every change returns a modified copy from a {@code with...}
+ * method, so a player can be read from any thread (simulations, the UI,
+ * the persistence thread) without locks, and the serializers never see half
+ * of an update. Goals are added by the repository, which swaps the stored
+ * player for a copy with the new count.
+ * <p>
+ * The version is stamped by the repository on every write of the player;
+ * {@code 0} means the player has never been stored. Goals are counters and
+ * do not change it.
+ * <p>
+ * New players get a time-ordered id from {@link IdUtils#newId()}; loaders
+ * use the restore constructor, which takes the stored id and generates none.
+ * The position text is shared through a {@link StringDictionary} and
+ * classified once into a {@link Position}.
  */
-public class Player {
+public final class Player {
 
     // -------- CONSTANTES DE VALIDACIÓN --------
     private static final int STRING_MIN = 2;
     private static final int STRING_MAX = 60;
+    public static final int GOALS_MAX = 999;
     private static final int CURRENT_YEAR  = Year.now().getValue();
+    private static final StringDictionary POSITIONS = new StringDictionary(4096);
 
     // -------- ATRIBUTOS PRINCIPALES --------
-    private UUID teamId, playerId;
-    private String fullName, fieldLocation;
-    private int birthYear, squadNumber, goals;
+    private final UUID teamId, playerId;
+    private final String fullName, fieldLocation;
+    private final int birthYear, squadNumber;
+    private final Position position;
+    private final int goals;
+    private final long version;
 
     // ---------- CONSTRUCTOR ----------
     public Player(UUID teamId, String fullName, int birthYear, String fieldLocation, int squadNumber) {
-        this.setTeamId(teamId);
-        this.playerId = UUID.randomUUID();
-        this.setFullName(fullName);
-        this.setBirthYear(birthYear);
-        this.setFieldLocation(fieldLocation);
-        this.setSquadNumber(squadNumber);
-        this.setGoals(0);
+        this(validateTeamId(teamId), IdUtils.newId(), validateFullName(fullName), validateBirthYear(birthYear),
+                validateFieldLocation(fieldLocation), validateSquadNumber(squadNumber), 0, 0);
+    }
+
+    /** Restaura un jugador guardado, con su ID y sus goles */
+    public Player(UUID teamId, UUID playerId, String fullName, int birthYear, String fieldLocation, int squadNumber, int goals) {
+        this(validateTeamId(teamId), validatePlayerId(playerId), validateFullName(fullName), validateBirthYear(birthYear),
+                validateFieldLocation(fieldLocation), validateSquadNumber(squadNumber), validateGoals(goals), 0);
+    }
+
+    /** Jugador ya validado, con la posición aún por clasificar */
+    private Player(UUID teamId, UUID playerId, String fullName, int birthYear, String fieldLocation,
+                   int squadNumber, int goals, long version) {
+        this(teamId, playerId, fullName, birthYear, fieldLocation, Position.of(fieldLocation), squadNumber, goals, version);
+    }
+
+    /** Copia ya validada; la usan los métodos with... */
+    private Player(UUID teamId, UUID playerId, String fullName, int birthYear, String fieldLocation, Position position,
+                   int squadNumber, int goals, long version) {
+        this.teamId = teamId;
+        this.playerId = playerId;
+        this.fullName = fullName;
+        this.birthYear = birthYear;
+        this.fieldLocation = fieldLocation;
+        this.position = position;
+        this.squadNumber = squadNumber;
+        this.goals = goals;
+        this.version = version;
     }
 
     // ---------- GETTERS ----------
@@ -38,25 +82,73 @@ public class Player {
     public String getFullName() { return this.fullName; }
     public int getBirthYear() { return this.birthYear; }
     public String getFieldLocation() { return this.fieldLocation; }
+    public Position getPosition() { return this.position; }
     public int getSquadNumber() { return this.squadNumber; }
     public int getGoals() { return this.goals; }
+    public long getVersion() { return this.version; }
+
+    // ---------- COPIAS MODIFICADAS ----------
+    public Player withTeamId(UUID teamId) {
+        return new Player(validateTeamId(teamId), playerId, fullName, birthYear, fieldLocation, position, squadNumber, goals, version);
+    }
+
+    public Player withFullName(String fullName) {
+        return new Player(teamId, playerId, validateFullName(fullName), birthYear, fieldLocation, position, squadNumber, goals, version);
+    }
+
+    /** withVersion:
+     * Solo el repositorio cambia la versión, al guardar el jugador.
+     * */
+    public Player withVersion(long version) {
+        if (version == this.version) return this;
+        return new Player(teamId, playerId, fullName, birthYear, fieldLocation, position, squadNumber, goals, version);
+    }
+
+    public Player withBirthYear(int birthYear) {
+        return new Player(teamId, playerId, fullName, validateBirthYear(birthYear), fieldLocation, position, squadNumber, goals, version);
+    }
 
-    // ---------- SETTERS ----------
-    public void setTeamId(UUID teamId) {
+    public Player withFieldLocation(String fieldLocation) {
+        return new Player(teamId, playerId, fullName, birthYear, validateFieldLocation(fieldLocation), squadNumber, goals, version);
+    }
+
+    public Player withSquadNumber(int squadNumber) {
+        return new Player(teamId, playerId, fullName, birthYear, fieldLocation, position, validateSquadNumber(squadNumber), goals, version);
+    }
+
+    /** withGoals:
+     * Validador de numero de goles entre 0 y 999.
+     * */
+    public Player withGoals(int goals) {
+        validateGoals(goals);
+        if (goals == this.goals) return this;
+        return new Player(teamId, playerId, fullName, birthYear, fieldLocation, position, squadNumber, goals, version);
+    }
+
+    /** withGoalsAdded:
+     * Suma varios goles sin pasar del máximo; si ya lo tenía devuelve el mismo jugador.
+     * */
+    public Player withGoalsAdded(int count) {
+        if (count < 0) throw new IllegalArgumentException("Nº Goles inválido.");
+        return withGoals((int) Math.min(GOALS_MAX, (long) goals + count));
+    }
+
+    // ---------- VALIDADORES ----------
+    private static UUID validateTeamId(UUID teamId) {
         if (teamId == null) {
             throw new IllegalArgumentException("El ID del equipo no puede ser nulo.");
         }
-        this.teamId = teamId;
+        return teamId;
     }
 
-    public void setPlayerId(UUID playerId) {
+    private static UUID validatePlayerId(UUID playerId) {
         if (playerId == null) {
-            throw new IllegalArgumentException("El ID del equipo no puede ser nulo.");
+            throw new IllegalArgumentException("El ID del jugador no puede ser nulo.");
         }
-        this.playerId = playerId;
+        return playerId;
     }
 
-    public void setFullName(String fullName) {
+    private static String validateFullName(String fullName) {
         if (fullName == null) {
             throw new IllegalArgumentException("El nombre no puede ser nulo.");
         }
@@ -68,47 +160,42 @@ public class Player {
         if (trimmed.length() < STRING_MIN || trimmed.length() > STRING_MAX) {
             throw new IllegalArgumentException("El nombre debe tener entre " + STRING_MIN + " y " + STRING_MAX + " caracteres");
         }
-        this.fullName = trimmed;
+        return trimmed;
     }
 
-    /** setBirthYear:
+    /** validateBirthYear:
      * Validador de año entre 1900 a fecha actual
      * */
-    public void setBirthYear(int birthYear) {
+    private static int validateBirthYear(int birthYear) {
         if(birthYear < 1900 || birthYear > CURRENT_YEAR) {
             throw new IllegalArgumentException("Edad fuera de rango.");
         }
-        this.birthYear = birthYear;
+        return birthYear;
     }
 
-    /** setFieldLocation:
-     * Validador de posiciones. (Opcional: Numerador)
+    /** validateFieldLocation:
+     * Validador de posiciones. El texto se comparte por el diccionario; su código es {@link Position}.
     * */
-    public void setFieldLocation(String fieldLocation) {
+    private static String validateFieldLocation(String fieldLocation) {
         if (fieldLocation == null || fieldLocation.isBlank()) throw new IllegalArgumentException("Posición vacía.");
-        this.fieldLocation = fieldLocation.trim();
+        return POSITIONS.canonical(fieldLocation.trim());
     }
 
-    /** setSquadNumber:
+    /** validateSquadNumber:
      * Validodor que limita el numero de dorsales entre 0 y 100.
      **/
-    public void setSquadNumber(int squadNumber) {
+    private static int validateSquadNumber(int squadNumber) {
         if (squadNumber < 0 || squadNumber > 100) throw new DomainException(DomainErrorCode.INVALID_SQUAD_NUMBER, "Dorsal fuera de rango (0-100).");
-        this.squadNumber = squadNumber;
+        return squadNumber;
     }
 
-    /** setFieldLocation:
-     * Validador de numero de goles entre 0 y 999.
-     * */
-    public void setGoals(int goals) {
-        if (goals < 0 || goals > 999) {
+    private static int validateGoals(int goals) {
+        if (goals < 0 || goals > GOALS_MAX) {
             throw new IllegalArgumentException("Nº Goles inválido.");
         }
-        this.goals = goals;
+        return goals;
     }
 
-    public void incrementGoals() { this.setGoals(this.goals + 1); }
-
     public String getSummary() {
         return String.format("Información del jugador:\n" +
                         "- Equipo ID: %s\n" +
@@ -126,4 +213,4 @@ public class Player {
         return this.getSummary();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package model;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Role of a player on the field, derived from the player's free-text position
+ * ({@code fieldLocation}). The text is kept as entered; this code is what
+ * the rest of the application compares and switches on.
+ */
+public enum Position {
+    GOALKEEPER, DEFENDER, MIDFIELDER, FORWARD, UNKNOWN;
+
+    private static final int CACHE_MAX = 4096;
+    // Few distinct texts exist: each is classified once
+    private static final Map<String, Position> BY_TEXT = new ConcurrentHashMap<>();
+
+    /**
+     * Posición libre (inglés o español): se reconoce por palabras clave.
+     *
+     * @param fieldLocation the position as written
+     * @return its role, {@link #UNKNOWN} if no keyword matches
+     */
+    public static Position of(String fieldLocation) {
+        Position position = BY_TEXT.get(fieldLocation);
+        if (position == null) {
+            position = classify(fieldLocation);
+            if (BY_TEXT.size() < CACHE_MAX) BY_TEXT.putIfAbsent(fieldLocation, position);
+        }
+        return position;
+    }
+
+    private static Position classify(String fieldLocation) {
+        String position = fieldLocation.toLowerCase(Locale.ROOT);
+        if (position.contains("goalkeeper") || position.contains("portero") || position.contains("arquero")) return GOALKEEPER;
+        if (position.contains("forward") || position.contains("striker") || position.contains("wing")
+                || position.contains("delanter") || position.contains("extremo") || position.contains("punta")) return FORWARD;
+        if (position.contains("midfield") || position.contains("centrocamp") || position.contains("medio")
+                || position.contains("volante")) return MIDFIELDER;
+        if (position.contains("back") || position.contains("defen") || position.contains("lateral")
+                || position.contains("central")) return DEFENDER;
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,27 @@
+package model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pending stat changes produced by one or more simulated matches: goals per
+ * player and wins per team. Simulations fill a delta and hand it to
+ * {@link repository.StatsRepository#applyStats(StatsDelta)} in a single
+ * call, so repository round-trips grow with the number of matches, not with
+ * the number of goals. Not thread-safe: fill it from one thread.
+ */
+public class StatsDelta {
+    private final Map<UUID, Integer> goalsByPlayer = new HashMap<>();
+    private final Map<UUID, Integer> winsByTeam = new HashMap<>();
+
+    // -------- METODOS --------
+    public void addGoal(UUID playerId) { goalsByPlayer.merge(playerId, 1, Integer::sum); }
+    public void addWin(UUID teamId) { winsByTeam.merge(teamId, 1, Integer::sum); }
+
+    // -------- GETTERS --------
+    public Map<UUID, Integer> getGoalsByPlayer() { return Collections.unmodifiableMap(goalsByPlayer); }
+    public Map<UUID, Integer> getWinsByTeam() { return Collections.unmodifiableMap(winsByTeam); }
+    public boolean isEmpty() { return goalsByPlayer.isEmpty() && winsByTeam.isEmpty(); }
+}
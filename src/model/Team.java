@@ -3,26 +3,59 @@ package model;
 import domain.DomainErrorCode;
 import domain.DomainException;
 
+import util.IdUtils;
+import util.StringDictionary;
+
 import java.util.UUID;
 
-public class Team {
+/**
+ * A football team. Immutable: every change returns a modified copy from a
+ * {@code with...} method, so a team can be shared between threads without
+ * locks or defensive copies and a reader never sees half of a change. The
+ * repository publishes a new state by swapping the stored reference.
+ * <p>
+ * The version is stamped by the repository on every write of the team or
+ * of its roster; {@code 0} means the team has never been stored. Services
+ * read it before a change and hand it back to the repository, which rejects
+ * the write if someone else changed the team in between.
+ * <p>
+ * New teams get a time-ordered id from {@link IdUtils#newId()}; loaders use
+ * the restore constructor, which takes the stored id and generates none.
+ * City, coach and formation repeat across teams and are shared through a
+ * {@link StringDictionary}.
+ */
+public final class Team {
 
     // -------- CONSTANTES DE VALIDACIÓN --------
     private static final int STRING_MAX   = 60;
+    private static final StringDictionary VALUES = new StringDictionary(4096);
 
     // -------- ATRIBUTOS --------
-    private UUID teamId;
-    private String name, city, coach, formation;
-    private int matchesWon;
+    private final UUID teamId;
+    private final String name, city, coach, formation;
+    private final int matchesWon;
+    private final long version;
 
     // -------- CONSTRUCTOR --------
     public Team(String name, String city, String coach, String formation) {
-        this.teamId = UUID.randomUUID();
-        this.setName(name);
-        this.setCity(city);
-        this.setCoach(coach);
-        this.setFormation(formation);
-        this.setMatchesWon(0);
+        this(IdUtils.newId(), validateText(name), validateValue(city), validateValue(coach), validateValue(formation), 0, 0);
+    }
+
+    /** Restaura un equipo guardado, con su ID y sus victorias */
+    public Team(UUID teamId, String name, String city, String coach, String formation, int matchesWon) {
+        this(validateTeamId(teamId), validateText(name), validateValue(city), validateValue(coach), validateValue(formation),
+                validateMatchesWon(matchesWon), 0);
+    }
+
+    /** Copia ya validada; la usan los métodos with... */
+    private Team(UUID teamId, String name, String city, String coach, String formation, int matchesWon, long version) {
+        this.teamId = teamId;
+        this.name = name;
+        this.city = city;
+        this.coach = coach;
+        this.formation = formation;
+        this.matchesWon = matchesWon;
+        this.version = version;
     }
 
     // -------- GETTERS --------
@@ -32,26 +65,38 @@ public class Team {
     public String getCoach(){ return coach; }
     public String getFormation(){ return formation; }
     public int getMatchesWon(){ return matchesWon; }
+    public long getVersion() { return version; }
+
+    // -------- COPIAS MODIFICADAS (con validación) --------
+    public Team withName(String name) { return new Team(teamId, validateText(name), city, coach, formation, matchesWon, version); }
+    public Team withCity(String city) { return new Team(teamId, name, validateValue(city), coach, formation, matchesWon, version); }
+    public Team withCoach(String coach) { return new Team(teamId, name, city, validateValue(coach), formation, matchesWon, version); }
+    public Team withFormation(String formation) { return new Team(teamId, name, city, coach, validateValue(formation), matchesWon, version); }
 
-    // -------- SETTERS (con validación) --------
-    public void setTeamId(UUID teamId) {
+    /** Solo el repositorio cambia la versión, al guardar el equipo o su plantilla */
+    public Team withVersion(long version) {
+        return version == this.version ? this : new Team(teamId, name, city, coach, formation, matchesWon, version);
+    }
+
+    /** Los partidos ganados no son negativas */
+    public Team withMatchesWon(int matchesWon) {
+        validateMatchesWon(matchesWon);
+        return matchesWon == this.matchesWon ? this : new Team(teamId, name, city, coach, formation, matchesWon, version);
+    }
+
+    // -------- UTILIDADES --------
+    private static UUID validateTeamId(UUID teamId) {
         if (teamId == null) {
             throw new IllegalArgumentException("El ID del equipo no puede ser nulo.");
         }
-        this.teamId = teamId;
+        return teamId;
     }
-    public void setName(String name) { this.name = validateText(name); }
-    public void setCity(String city) { this.city = validateText(city); }
-    public void setCoach(String coach) { this.coach = validateText(coach); }
-    public void setFormation(String formation) { this.formation = validateText(formation); }
 
-    /** Los partidos ganados no son negativas */
-    public void setMatchesWon(int matchesWon) {
+    private static int validateMatchesWon(int matchesWon) {
         if (matchesWon < 0) throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "Las victorias no pueden ser negativas.");
-        this.matchesWon = matchesWon;
+        return matchesWon;
     }
 
-    // -------- UTILIDADES --------
     private static String validateText(String value) {
         if (value == null || value.isBlank()) throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "Entrada inválida.");
         String trimmed = value.trim();
@@ -62,6 +107,11 @@ public class Team {
         return trimmed;
     }
 
+    /** Texto validado y compartido con los demás equipos que lo repiten */
+    private static String validateValue(String value) {
+        return VALUES.canonical(validateText(value));
+    }
+
     public String getSummary() {
         return String.format("Información del equipo:\n" +
                         "- Equipo ID: %s\n" +
@@ -74,10 +124,14 @@ public class Team {
     }
 
     // -------- METODOS --------
-    public void incrementMatchesWon() { this.matchesWon++; }
+    /** Copia con {@code count} victorias más */
+    public Team withMatchesWonAdded(int count) {
+        if (count < 0) throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "Las victorias no pueden ser negativas.");
+        return withMatchesWon(matchesWon + count);
+    }
 
     @Override
     public String toString() {
         return this.getSummary();
     }
-}
\ No newline at end of file
+}
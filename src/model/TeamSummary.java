@@ -0,0 +1,48 @@
+package model;
+
+import java.time.Year;
+import java.util.UUID;
+
+/**
+ * Totals of one team as shown by the summary screens: squad size, goals of
+ * the squad, average age and wins. The repository keeps the squad totals up
+ * to date on every player write, so a summary is read, not computed from the
+ * roster.
+ */
+public final class TeamSummary {
+    private static final int CURRENT_YEAR = Year.now().getValue();
+
+    private final UUID teamId;
+    private final String name;
+    private final int players;
+    private final long goals;
+    private final long birthYearSum;
+    private final int matchesWon;
+
+    /**
+     * @param team         the team
+     * @param players      number of players of the team
+     * @param goals        goals scored by those players
+     * @param birthYearSum sum of those players' birth years
+     */
+    public TeamSummary(Team team, int players, long goals, long birthYearSum) {
+        this.teamId = team.getTeamId();
+        this.name = team.getName();
+        this.players = players;
+        this.goals = goals;
+        this.birthYearSum = birthYearSum;
+        this.matchesWon = team.getMatchesWon();
+    }
+
+    // -------- GETTERS --------
+    public UUID getTeamId() { return this.teamId; }
+    public String getName() { return this.name; }
+    public int getPlayers() { return this.players; }
+    public long getGoals() { return this.goals; }
+    public int getMatchesWon() { return this.matchesWon; }
+
+    /** @return average age of the players this year, {@code 0} for an empty squad */
+    public double getAverageAge() {
+        return players == 0 ? 0 : CURRENT_YEAR - (double) birthYearSum / players;
+    }
+}
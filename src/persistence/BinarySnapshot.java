@@ -0,0 +1,235 @@
+package persistence;
+
+import model.Player;
+import model.Team;
+import repository.MatchHistory;
+import simulation.EloRatings;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the whole repository taken at a known position of the
+ * {@link EventLog}. Recovery loads the snapshot and then only replays the
+ * records written after {@link #getLogOffset()}, so its cost is bounded by
+ * the snapshot size plus the tail of the log.
+ * <p>
+ * After the teams and players come the {@link EloRatings} and then the
+ * {@link MatchHistory} columns. The file ends with the CRC-32 of everything
+ * before it, like the records of the log, so a snapshot cut short by a crash
+ * is detected ({@link #isIntact(Path)}) instead of half-loaded.
+ */
+public class BinarySnapshot {
+    private static final int MAGIC = 0x53534e31; // "SSN1"
+
+    private final long lastSequence;
+    private final long logOffset;
+    private final List<Team> teams;
+    private final List<Player> players;
+
+    private BinarySnapshot(long lastSequence, long logOffset, List<Team> teams, List<Player> players) {
+        this.lastSequence = lastSequence;
+        this.logOffset = logOffset;
+        this.teams = teams;
+        this.players = players;
+    }
+
+    /** @return sequence of the last event already reflected in this snapshot */
+    public long getLastSequence() { return lastSequence; }
+    /** @return log offset from which replay has to continue */
+    public long getLogOffset() { return logOffset; }
+    public List<Team> getTeams() { return teams; }
+    public List<Player> getPlayers() { return players; }
+
+    /**
+     * Serialises the given state into memory. Teams and players are
+     * immutable, so lists of them taken at the log position are already a
+     * consistent capture and may be encoded later, on another thread, while
+     * the repository keeps changing. The ratings are mutable and are passed
+     * as bytes captured by {@link #captureRatings(EloRatings)}. The match
+     * history is not part of these bytes: being append-only, it is captured
+     * by size and streamed by {@link #write(Path, byte[], MatchHistory.Capture)}.
+     *
+     * @param lastSequence sequence of the last event reflected in the state
+     * @param logOffset    log offset right after that event
+     * @param teams        all teams
+     * @param players      all players
+     * @param ratings      the team ratings, as captured at the same position
+     * @return the encoded snapshot
+     */
+    public static byte[] encode(long lastSequence, long logOffset, List<Team> teams, List<Player> players,
+                                byte[] ratings) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + teams.size() * 96 + players.size() * 96);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeLong(lastSequence);
+            out.writeLong(logOffset);
+            out.writeInt(teams.size());
+            for (Team team : teams) {
+                EventCodec.writeUuid(out, team.getTeamId());
+                out.writeUTF(team.getName());
+                out.writeUTF(team.getCity());
+                out.writeUTF(team.getCoach());
+                out.writeUTF(team.getFormation());
+                out.writeInt(team.getMatchesWon());
+            }
+            out.writeInt(players.size());
+            for (Player player : players) {
+                EventCodec.writeUuid(out, player.getTeamId());
+                EventCodec.writeUuid(out, player.getPlayerId());
+                out.writeUTF(player.getFullName());
+                out.writeInt(player.getBirthYear());
+                out.writeUTF(player.getFieldLocation());
+                out.writeInt(player.getSquadNumber());
+                out.writeInt(player.getGoals());
+            }
+            out.write(ratings);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param ratings the team ratings
+     * @return the ratings as {@link #encode} stores them
+     */
+    public static byte[] captureRatings(EloRatings ratings) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + ratings.size() * 40);
+            DataOutputStream out = new DataOutputStream(bytes);
+            ratings.writeTo(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes an encoded snapshot atomically (temporary file and move). The
+     * temporary file is forced to the device before the move and the
+     * directory after it, so after a power loss the snapshot is either the
+     * previous one or the complete new one, never a renamed empty file.
+     *
+     * @param path    the snapshot file
+     * @param encoded bytes produced by {@link #encode}
+     * @param history the match history captured together with the encoded state
+     * @throws IOException if an IO error occurs
+     */
+    public static void write(Path path, byte[] encoded, MatchHistory.Capture history) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), crc), 1 << 16));
+            out.write(encoded);
+            history.writeTo(out);
+            // The checksum only covers what has gone through the buffer
+            out.flush();
+            out.writeInt((int) crc.getValue());
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(path.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Checks the trailing CRC-32 of a snapshot file.
+     *
+     * @param path the snapshot file
+     * @return true if the file is complete and its checksum matches
+     * @throws IOException if the file cannot be read
+     */
+    public static boolean isIntact(Path path) throws IOException {
+        long size = Files.size(path);
+        if (size < 2L * Integer.BYTES) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[1 << 16];
+            long remaining = size - Integer.BYTES;
+            while (remaining > 0) {
+                int chunk = (int) Math.min(buffer.length, remaining);
+                in.readFully(buffer, 0, chunk);
+                crc.update(buffer, 0, chunk);
+                remaining -= chunk;
+            }
+            return in.readInt() == (int) crc.getValue();
+        }
+    }
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @param path    the snapshot file
+     * @param history receives the match history stored in the snapshot
+     * @param ratings receives the team ratings stored in the snapshot
+     * @return the snapshot, or {@code null} if the file does not exist
+     * @throws IOException if an IO error occurs, the file is not a snapshot
+     *         or its checksum does not match (nothing is loaded then)
+     */
+    public static BinarySnapshot read(Path path, MatchHistory history, EloRatings ratings) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        if (!isIntact(path)) {
+            throw new IOException("El snapshot binario está incompleto o dañado: " + path);
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("El fichero no es un snapshot binario: " + path);
+            }
+            long lastSequence = in.readLong();
+            long logOffset = in.readLong();
+            int teamCount = in.readInt();
+            List<Team> teams = new ArrayList<>(teamCount);
+            for (int i = 0; i < teamCount; i++) {
+                UUID teamId = EventCodec.readUuid(in);
+                teams.add(new Team(teamId, in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(), in.readInt()));
+            }
+            int playerCount = in.readInt();
+            List<Player> players = new ArrayList<>(playerCount);
+            for (int i = 0; i < playerCount; i++) {
+                UUID teamId = EventCodec.readUuid(in);
+                UUID playerId = EventCodec.readUuid(in);
+                players.add(new Player(teamId, playerId, in.readUTF(), in.readInt(), in.readUTF(), in.readInt(), in.readInt()));
+            }
+            ratings.readFrom(in);
+            history.readFrom(in);
+            return new BinarySnapshot(lastSequence, logOffset, teams, players);
+        }
+    }
+
+    // --- UTILIDADES ---
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Windows no permite abrir un directorio: allí el movimiento ya es duradero al volver
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package persistence;
+
+import events.DomainEvent;
+import events.MatchSimulatedEvent;
+import events.PlayerAddedToTeamEvent;
+import events.PlayerDeletedFromTeamEvent;
+import events.RosterImportedEvent;
+import events.TeamCreatedEvent;
+import events.TeamDeletedEvent;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of the domain events. Each event is written as a
+ * one-byte type tag followed by its fields; UUIDs are written as two longs
+ * and strings in modified UTF-8. The tags are part of the on-disk format and
+ * must never be renumbered.
+ */
+public final class EventCodec {
+
+    // --- ETIQUETAS DE TIPO (formato en disco) ---
+    private static final byte TEAM_CREATED = 1;
+    private static final byte TEAM_DELETED = 2;
+    private static final byte PLAYER_ADDED = 3;
+    private static final byte PLAYER_DELETED = 4;
+    private static final byte MATCH_SIMULATED = 5;
+    private static final byte ROSTER_IMPORTED = 6;
+
+    private EventCodec() {
+        // utility class - prevent instantiation
+    }
+
+    /**
+     * Writes the given event.
+     *
+     * @param out   the destination
+     * @param event the event to encode
+     * @throws IOException              if an IO error occurs
+     * @throws IllegalArgumentException if the event type has no encoding
+     */
+    public static void write(DataOutput out, DomainEvent event) throws IOException {
+        if (event instanceof TeamCreatedEvent tc) {
+            out.writeByte(TEAM_CREATED);
+            writeTeam(out, tc);
+        } else if (event instanceof TeamDeletedEvent td) {
+            out.writeByte(TEAM_DELETED);
+            writeUuid(out, td.getTeamId());
+            out.writeUTF(td.getName());
+            writeUuids(out, td.getPlayerIds());
+        } else if (event instanceof PlayerAddedToTeamEvent pa) {
+            out.writeByte(PLAYER_ADDED);
+            writePlayer(out, pa);
+        } else if (event instanceof PlayerDeletedFromTeamEvent pd) {
+            out.writeByte(PLAYER_DELETED);
+            writeUuid(out, pd.getTeamId());
+            writeUuid(out, pd.getPlayerId());
+        } else if (event instanceof MatchSimulatedEvent ms) {
+            out.writeByte(MATCH_SIMULATED);
+            writeUuid(out, ms.getTeamAId());
+            writeUuid(out, ms.getTeamBId());
+            writeUuids(out, ms.getScorersA());
+            writeUuids(out, ms.getScorersB());
+            out.writeLong(ms.getSeed());
+            out.writeLong(ms.getPlayedAt());
+        } else if (event instanceof RosterImportedEvent ri) {
+            out.writeByte(ROSTER_IMPORTED);
+            out.writeInt(ri.getTeams().size());
+            for (TeamCreatedEvent team : ri.getTeams()) {
+                writeTeam(out, team);
+            }
+            out.writeInt(ri.getPlayers().size());
+            for (PlayerAddedToTeamEvent player : ri.getPlayers()) {
+                writePlayer(out, player);
+            }
+        } else {
+            throw new IllegalArgumentException("Evento sin codificación binaria: " + event.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads one event previously written by {@link #write(DataOutput, DomainEvent)}.
+     *
+     * @param in the source
+     * @return the decoded event
+     * @throws IOException if an IO error occurs or the tag is unknown
+     */
+    public static DomainEvent read(DataInput in) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case TEAM_CREATED:
+                return readTeam(in);
+            case TEAM_DELETED:
+                return new TeamDeletedEvent(readUuid(in), in.readUTF(), readUuids(in));
+            case PLAYER_ADDED:
+                return readPlayer(in);
+            case PLAYER_DELETED:
+                return new PlayerDeletedFromTeamEvent(readUuid(in), readUuid(in));
+            case MATCH_SIMULATED:
+                return new MatchSimulatedEvent(readUuid(in), readUuid(in), readUuids(in), readUuids(in), in.readLong(), in.readLong());
+            case ROSTER_IMPORTED:
+                return readRoster(in);
+            default:
+                throw new IOException("Etiqueta de evento desconocida: " + tag);
+        }
+    }
+
+    // --- UTILIDADES ---
+    static void writeUuid(DataOutput out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static UUID readUuid(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeTeam(DataOutput out, TeamCreatedEvent team) throws IOException {
+        writeUuid(out, team.getTeamId());
+        out.writeUTF(team.getName());
+        out.writeUTF(team.getCity());
+        out.writeUTF(team.getCoach());
+        out.writeUTF(team.getFormation());
+    }
+
+    private static TeamCreatedEvent readTeam(DataInput in) throws IOException {
+        return new TeamCreatedEvent(readUuid(in), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+    }
+
+    private static void writePlayer(DataOutput out, PlayerAddedToTeamEvent player) throws IOException {
+        writeUuid(out, player.getTeamId());
+        writeUuid(out, player.getPlayerId());
+        out.writeUTF(player.getFullName());
+        out.writeInt(player.getBirthYear());
+        out.writeUTF(player.getFieldLocation());
+        out.writeInt(player.getSquadNumber());
+    }
+
+    private static PlayerAddedToTeamEvent readPlayer(DataInput in) throws IOException {
+        return new PlayerAddedToTeamEvent(readUuid(in), readUuid(in), in.readUTF(), in.readInt(), in.readUTF(), in.readInt());
+    }
+
+    private static RosterImportedEvent readRoster(DataInput in) throws IOException {
+        int teamCount = in.readInt();
+        List<TeamCreatedEvent> teams = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            teams.add(readTeam(in));
+        }
+        int playerCount = in.readInt();
+        List<PlayerAddedToTeamEvent> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            players.add(readPlayer(in));
+        }
+        return new RosterImportedEvent(teams, players);
+    }
+
+    private static void writeUuids(DataOutput out, List<UUID> ids) throws IOException {
+        out.writeInt(ids.size());
+        for (UUID id : ids) {
+            writeUuid(out, id);
+        }
+    }
+
+    private static List<UUID> readUuids(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<UUID> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(readUuid(in));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,209 @@
+package persistence;
+
+import events.DomainEvent;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of domain events. The file starts with a small
+ * header followed by records of the form
+ * {@code [int length][long sequence][event bytes][int crc32]}, where the
+ * length and checksum cover the sequence and the event. A record that is
+ * incomplete or fails its checksum marks the end of the log: it can only be
+ * the tail of a write interrupted by a crash, so it is truncated away the
+ * next time the log is scanned.
+ * <p>
+ * A log opened with records refuses appends until it has been scanned: only
+ * the scan knows where the last valid record ends, and appending anywhere
+ * else would overwrite history.
+ */
+public class EventLog implements Closeable {
+    private static final int MAGIC = 0x53455631; // "SEV1"
+    /** Offset of the first record, right after the header. */
+    public static final long FIRST_RECORD_OFFSET = Integer.BYTES;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+    private final DataOutputStream bodyOut = new DataOutputStream(body);
+    private final CRC32 crc = new CRC32();
+    private long endOffset;
+    private long lastSequence;
+    // False while the log holds records that no scan has walked yet
+    private boolean positioned;
+
+    /**
+     * Opens (or creates) the log at the given path. A new or empty log can be
+     * appended to at once; one with records only after
+     * {@link #scan(long, long, Consumer)} has found its end.
+     *
+     * @param path the log file
+     * @throws IOException if the file cannot be opened or is not an event log
+     */
+    public EventLog(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() < FIRST_RECORD_OFFSET) {
+            channel.truncate(0);
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, MAGIC), 0);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC) {
+                channel.close();
+                throw new IOException("El fichero no es un log de eventos: " + path);
+            }
+        }
+        this.endOffset = FIRST_RECORD_OFFSET;
+        this.positioned = channel.size() == FIRST_RECORD_OFFSET;
+    }
+
+    /** @return true if the log holds at least one record */
+    public boolean hasRecords() throws IOException {
+        return channel.size() > FIRST_RECORD_OFFSET;
+    }
+
+    /**
+     * Reads every valid record starting at the given offset, handing events
+     * whose sequence is greater than {@code afterSequence} to the consumer.
+     * Afterwards the log is positioned for appending right after the last
+     * valid record, and any torn tail is truncated.
+     *
+     * @param fromOffset    byte offset of the first record to read
+     * @param afterSequence events with a sequence up to this value are skipped
+     * @param consumer      receives the events in log order
+     * @return the number of events handed to the consumer
+     * @throws IOException if an IO error occurs, or if {@code fromOffset} lies past the end of the log
+     */
+    public synchronized long scan(long fromOffset, long afterSequence, Consumer<DomainEvent> consumer) throws IOException {
+        long offset = Math.max(fromOffset, FIRST_RECORD_OFFSET);
+        if (offset > channel.size()) {
+            throw new IOException("El log de eventos " + path + " acaba en " + channel.size() + " y se pidió leer desde " + offset + ".");
+        }
+        long sequence = afterSequence;
+        long delivered = 0;
+        channel.position(offset);
+        InputStream raw = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+        DataInputStream in = new DataInputStream(raw);
+        while (true) {
+            byte[] record;
+            int checksum;
+            try {
+                int length = in.readInt();
+                if (length <= Long.BYTES || length > channel.size()) break;
+                record = new byte[length];
+                in.readFully(record);
+                checksum = in.readInt();
+            } catch (EOFException e) {
+                break;
+            }
+            crc.reset();
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) break;
+
+            DataInputStream recordIn = new DataInputStream(new ByteArrayInputStream(record));
+            long recordSequence = recordIn.readLong();
+            if (recordSequence > afterSequence) {
+                consumer.accept(EventCodec.read(recordIn));
+                delivered++;
+            }
+            sequence = Math.max(sequence, recordSequence);
+            offset += Integer.BYTES + record.length + Integer.BYTES;
+        }
+        if (channel.size() > offset) {
+            System.err.println("Log de eventos " + path + ": descartando " + (channel.size() - offset) + " bytes incompletos al final.");
+            channel.truncate(offset);
+        }
+        this.endOffset = offset;
+        this.lastSequence = sequence;
+        this.positioned = true;
+        return delivered;
+    }
+
+    /**
+     * Appends the given event and returns its sequence number. The record is
+     * handed to the operating system but not forced to the device; see
+     * {@link #force()}.
+     *
+     * @param event the event to append
+     * @return the sequence number assigned to the event
+     * @throws IOException if an IO error occurs
+     */
+    public synchronized long append(DomainEvent event) throws IOException {
+        return appendAll(List.of(event));
+    }
+
+    /**
+     * Appends the given events with consecutive sequence numbers using a
+     * single write.
+     *
+     * @param events the events to append, in order
+     * @return the sequence number assigned to the last event
+     * @throws IOException if an IO error occurs, or if the log has records and has not been scanned
+     */
+    public synchronized long appendAll(List<? extends DomainEvent> events) throws IOException {
+        if (!positioned) {
+            throw new IOException("El log de eventos " + path + " tiene registros sin leer: no se puede añadir hasta recuperarlo.");
+        }
+        ByteArrayOutputStream records = new ByteArrayOutputStream(events.size() * 128);
+        DataOutputStream recordsOut = new DataOutputStream(records);
+        long sequence = lastSequence;
+        for (DomainEvent event : events) {
+            sequence++;
+            body.reset();
+            bodyOut.writeLong(sequence);
+            EventCodec.write(bodyOut, event);
+            bodyOut.flush();
+            crc.reset();
+            crc.update(body.toByteArray());
+            recordsOut.writeInt(body.size());
+            body.writeTo(recordsOut);
+            recordsOut.writeInt((int) crc.getValue());
+        }
+        recordsOut.flush();
+
+        ByteBuffer buffer = ByteBuffer.wrap(records.toByteArray());
+        long position = endOffset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        endOffset = position;
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /** Forces appended records to the storage device. */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    /** @return byte offset right after the last appended record */
+    public synchronized long getEndOffset() { return endOffset; }
+
+    /** @return sequence number of the last appended record, or 0 if none */
+    public synchronized long getLastSequence() { return lastSequence; }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+}
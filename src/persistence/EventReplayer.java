@@ -0,0 +1,128 @@
+package persistence;
+
+import events.DomainEvent;
+import events.MatchSimulatedEvent;
+import events.PlayerAddedToTeamEvent;
+import events.PlayerDeletedFromTeamEvent;
+import events.RosterImportedEvent;
+import events.TeamCreatedEvent;
+import events.TeamDeletedEvent;
+import model.Player;
+import model.StatsDelta;
+import model.Team;
+import repository.PlayerRepository;
+import repository.StatsRepository;
+import repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+/**
+ * Rebuilds repository state by re-applying logged events. Every event only
+ * touches one team and that team's players (a match touches two teams and is
+ * split into one effect per side), so events are partitioned by team id and
+ * the partitions are replayed in parallel. Within a partition the log order
+ * is preserved, which keeps the result deterministic. A bulk import is
+ * split into its team and player events, which are routed like any other.
+ * The goals and the win of each side of a match are applied as one
+ * {@link StatsDelta}, like a live simulation does.
+ */
+public class EventReplayer {
+    private final TeamRepository teamRepository;
+    private final PlayerRepository playerRepository;
+    private final StatsRepository statsRepository;
+    private final int partitions;
+
+    public EventReplayer(TeamRepository teamRepository, PlayerRepository playerRepository, StatsRepository statsRepository,
+                         int partitions) {
+        if (partitions < 1) throw new IllegalArgumentException("Se necesita al menos una partición.");
+        this.teamRepository = teamRepository;
+        this.playerRepository = playerRepository;
+        this.statsRepository = statsRepository;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Applies the given events, in log order, to the repositories.
+     *
+     * @param events the events to replay
+     */
+    public void replay(List<DomainEvent> events) {
+        List<Partition> lanes = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            lanes.add(new Partition());
+        }
+        for (DomainEvent event : events) {
+            if (event instanceof MatchSimulatedEvent ms) {
+                route(lanes, ms.getTeamAId(), event);
+                route(lanes, ms.getTeamBId(), event);
+            } else if (event instanceof RosterImportedEvent ri) {
+                for (DomainEvent part : ri.toEvents()) {
+                    route(lanes, teamOf(part), part);
+                }
+            } else {
+                route(lanes, teamOf(event), event);
+            }
+        }
+        IntStream.range(0, partitions).parallel().forEach(p -> lanes.get(p).applyAll());
+    }
+
+    // --- UTILIDADES ---
+    private void route(List<Partition> lanes, UUID teamId, DomainEvent event) {
+        int partition = Math.floorMod(teamId.hashCode(), partitions);
+        Partition lane = lanes.get(partition);
+        lane.teamIds.add(teamId);
+        lane.events.add(event);
+    }
+
+    private static UUID teamOf(DomainEvent event) {
+        if (event instanceof TeamCreatedEvent tc) return tc.getTeamId();
+        if (event instanceof TeamDeletedEvent td) return td.getTeamId();
+        if (event instanceof PlayerAddedToTeamEvent pa) return pa.getTeamId();
+        if (event instanceof PlayerDeletedFromTeamEvent pd) return pd.getTeamId();
+        throw new IllegalArgumentException("Evento no reproducible: " + event.getClass().getName());
+    }
+
+    /** Applies the part of the event that concerns the given team. */
+    private void apply(UUID teamId, DomainEvent event) {
+        if (event instanceof TeamCreatedEvent tc) {
+            Team team = new Team(tc.getTeamId(), tc.getName(), tc.getCity(), tc.getCoach(), tc.getFormation(), 0);
+            teamRepository.saveTeam(team);
+        } else if (event instanceof TeamDeletedEvent) {
+            teamRepository.deleteTeam(teamId);
+        } else if (event instanceof PlayerAddedToTeamEvent pa) {
+            Player player = new Player(pa.getTeamId(), pa.getPlayerId(), pa.getFullName(), pa.getBirthYear(),
+                    pa.getFieldLocation(), pa.getSquadNumber(), 0);
+            playerRepository.savePlayer(player);
+        } else if (event instanceof PlayerDeletedFromTeamEvent pd) {
+            playerRepository.deletePlayer(pd.getPlayerId());
+        } else if (event instanceof MatchSimulatedEvent ms) {
+            boolean sideA = teamId.equals(ms.getTeamAId());
+            List<UUID> scorers = sideA ? ms.getScorersA() : ms.getScorersB();
+            int goalsFor = sideA ? ms.getGoalsA() : ms.getGoalsB();
+            int goalsAgainst = sideA ? ms.getGoalsB() : ms.getGoalsA();
+            StatsDelta delta = new StatsDelta();
+            scorers.forEach(delta::addGoal);
+            if (goalsFor > goalsAgainst) {
+                delta.addWin(teamId);
+            }
+            if (!delta.isEmpty()) {
+                statsRepository.applyStats(delta);
+            }
+        }
+    }
+
+    /** Ordered list of (team, event) effects handled by one worker. */
+    private final class Partition {
+        private final List<UUID> teamIds = new ArrayList<>();
+        private final List<DomainEvent> events = new ArrayList<>();
+
+        private void applyAll() {
+            for (int i = 0; i < events.size(); i++) {
+                apply(teamIds.get(i), events.get(i));
+            }
+        }
+    }
+}
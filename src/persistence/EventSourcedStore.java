@@ -0,0 +1,272 @@
+package persistence;
+
+import domain.DomainErrorCode;
+import domain.DomainException;
+import events.DomainEvent;
+import events.MatchSimulatedEvent;
+import events.RosterImportedEvent;
+import events.TeamCreatedEvent;
+import events.TeamDeletedEvent;
+import events.bus.DomainEventListener;
+import repository.ChangeSet;
+import repository.ChangeSetRepository;
+import repository.MatchHistory;
+import model.Player;
+import model.StatsDelta;
+import model.Team;
+import repository.PlayerRepository;
+import repository.StatsRepository;
+import repository.TeamRepository;
+import simulation.EloRatings;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes the domain events the system of record. Every published event is
+ * appended to an {@link EventLog}; every {@code snapshotEvery} events the
+ * repository is captured into a {@link BinarySnapshot} that remembers the log
+ * position it corresponds to. On startup {@link #recover()} loads the latest
+ * snapshot and replays only the tail of the log, in parallel per team.
+ * <p>
+ * The state imported on the first run is not in the log, so the snapshot
+ * taken before the first event is also kept as a base file. If the latest
+ * snapshot turns out to be damaged, recovery starts from that base and
+ * replays the whole log instead.
+ * <p>
+ * The store is also the {@link StatsRepository} the services apply match
+ * statistics through: it applies a delta and publishes its events while
+ * holding the lock that {@link #snapshot()} takes, so a snapshot never holds
+ * goals or wins whose event lies after its log position, which recovery
+ * would then add a second time. It is likewise the
+ * {@link ChangeSetRepository} units of work commit through: the writes of
+ * a unit and its events go in under the same lock as every log append, so
+ * two units on the same team reach the log in the order they were applied
+ * and replay cannot reorder them (e.g. bring back a player deleted after
+ * being added).
+ * <p>
+ * Match results are also appended to a {@link MatchHistory} and rated by
+ * {@link EloRatings}. Both are saved with every snapshot and completed from
+ * the log tail on recovery.
+ * <p>
+ * This listener must be subscribed with {@code Delivery.REQUIRED} (and before
+ * any other listener) so that events reach the log in publish order and a
+ * failed append fails the operation that published them. After such a
+ * failure the store refuses every later append and snapshot: the log stays
+ * the last state known to be durable, and every write reports the error
+ * instead of changing memory the log can no longer follow.
+ */
+public class EventSourcedStore implements DomainEventListener<DomainEvent>, StatsRepository, ChangeSetRepository, Closeable {
+    private final Path snapshotPath;
+    // Snapshot at sequence 0: the imported state the whole log applies to
+    private final Path basePath;
+    private final TeamRepository teamRepository;
+    private final PlayerRepository playerRepository;
+    private final StatsRepository statsRepository;
+    private final MatchHistory history;
+    private final EloRatings ratings;
+    private final EventLog log;
+    private final int snapshotEvery;
+    private final int replayPartitions;
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "snapshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long eventsSinceSnapshot;
+    // First append error; once set nothing more is logged or snapshotted
+    private IOException failure;
+
+    /**
+     * @param logPath          the event log file
+     * @param snapshotPath     the binary snapshot file
+     * @param teamRepository   repository rebuilt on recovery and captured by snapshots
+     * @param playerRepository repository rebuilt on recovery and captured by snapshots
+     * @param statsRepository  receives the goals and wins of the replayed and the played matches
+     * @param history          match results rebuilt on recovery and captured by snapshots
+     * @param ratings          team ratings rebuilt on recovery and captured by snapshots
+     * @param snapshotEvery    number of appended events between two snapshots
+     * @param replayPartitions number of team partitions replayed in parallel
+     * @throws IOException if the log cannot be opened
+     */
+    public EventSourcedStore(Path logPath, Path snapshotPath, TeamRepository teamRepository, PlayerRepository playerRepository,
+                             StatsRepository statsRepository, MatchHistory history, EloRatings ratings, int snapshotEvery,
+                             int replayPartitions) throws IOException {
+        this.snapshotPath = snapshotPath;
+        this.basePath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".base");
+        this.teamRepository = teamRepository;
+        this.playerRepository = playerRepository;
+        this.statsRepository = statsRepository;
+        this.history = history;
+        this.ratings = ratings;
+        this.log = new EventLog(logPath);
+        this.snapshotEvery = snapshotEvery;
+        this.replayPartitions = replayPartitions;
+    }
+
+    /** @return true if a snapshot or logged events exist to recover from */
+    public boolean hasHistory() throws IOException {
+        return Files.exists(snapshotPath) || log.hasRecords();
+    }
+
+    /**
+     * Rebuilds the repositories from the latest snapshot plus the events
+     * appended after it. A damaged snapshot is skipped: the state is then
+     * rebuilt from the base snapshot, if any, and the whole log.
+     *
+     * @return a one-line summary of what was recovered
+     * @throws IOException if the log or the base snapshot cannot be read
+     */
+    public synchronized String recover() throws IOException {
+        long start = System.nanoTime();
+        Path source = snapshotPath;
+        if (Files.exists(snapshotPath) && !BinarySnapshot.isIntact(snapshotPath)) {
+            System.err.println("Advertencia: El snapshot binario está dañado, se reproduce el log completo");
+            source = basePath;
+        }
+        BinarySnapshot snapshot = BinarySnapshot.read(source, history, ratings);
+        long fromOffset = EventLog.FIRST_RECORD_OFFSET;
+        long afterSequence = 0;
+        if (snapshot != null) {
+            teamRepository.saveTeams(snapshot.getTeams());
+            playerRepository.savePlayers(snapshot.getPlayers());
+            fromOffset = snapshot.getLogOffset();
+            afterSequence = snapshot.getLastSequence();
+        }
+        List<DomainEvent> tail = new ArrayList<>();
+        log.scan(fromOffset, afterSequence, tail::add);
+        new EventReplayer(teamRepository, playerRepository, statsRepository, replayPartitions).replay(tail);
+        eventsSinceSnapshot = updateViews(tail);
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return "snapshot " + (snapshot == null ? "ninguno" : "#" + snapshot.getLastSequence())
+                + " + " + tail.size() + " eventos reproducidos en " + millis + " ms";
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        onEvents(List.of(event));
+    }
+
+    @Override
+    public synchronized void onEvents(List<? extends DomainEvent> events) {
+        if (failure != null) {
+            throw new DomainException(DomainErrorCode.PERSISTENCE_ERROR,
+                    "El log de eventos no admite escrituras desde un error anterior: " + failure.getMessage());
+        }
+        try {
+            log.appendAll(events);
+        } catch (IOException e) {
+            failure = e;
+            throw new DomainException(DomainErrorCode.PERSISTENCE_ERROR, "No se pudo escribir en el log de eventos: " + e.getMessage());
+        }
+        eventsSinceSnapshot += updateViews(events);
+        if (eventsSinceSnapshot >= snapshotEvery) {
+            snapshot();
+        }
+    }
+
+    @Override
+    public void applyStats(StatsDelta delta) {
+        statsRepository.applyStats(delta);
+    }
+
+    @Override
+    public synchronized void applyStats(StatsDelta delta, Runnable announce) {
+        statsRepository.applyStats(delta);
+        // Logged inline on this thread, re-entering the lock
+        announce.run();
+    }
+
+    @Override
+    public void commit(ChangeSet changes) {
+        teamRepository.commit(changes);
+    }
+
+    @Override
+    public synchronized void commit(ChangeSet changes, Runnable announce) {
+        // The repository undoes the writes if the announcement (the log append) fails
+        teamRepository.commit(changes, announce);
+    }
+
+    /**
+     * Captures the repositories at the current log position and writes the
+     * snapshot in the background. The capture itself is synchronous so that
+     * it matches the log position exactly; since entities are immutable it
+     * only copies references, and the encoding runs on the writer thread.
+     * Does nothing after a failed append, since memory may hold changes the
+     * log does not.
+     */
+    public synchronized void snapshot() {
+        if (failure != null) return;
+        long lastSequence = log.getLastSequence();
+        long logOffset = log.getEndOffset();
+        List<Team> teams = teamRepository.findAllTeams();
+        List<Player> players = playerRepository.findAllPlayers();
+        byte[] elo = BinarySnapshot.captureRatings(ratings);
+        MatchHistory.Capture matches = history.capture();
+        eventsSinceSnapshot = 0;
+        snapshotWriter.execute(() -> {
+            try {
+                byte[] encoded = BinarySnapshot.encode(lastSequence, logOffset, teams, players, elo);
+                // The snapshot must never point past what the log has made durable
+                log.force();
+                BinarySnapshot.write(snapshotPath, encoded, matches);
+                if (lastSequence == 0) {
+                    BinarySnapshot.write(basePath, encoded, matches);
+                }
+            } catch (IOException e) {
+                System.err.println("Error al guardar el snapshot: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Writes a final snapshot and closes the log. Call on application exit.
+     */
+    @Override
+    public void close() {
+        snapshot();
+        snapshotWriter.shutdown();
+        try {
+            snapshotWriter.awaitTermination(10, TimeUnit.SECONDS);
+            log.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Error al cerrar el log de eventos: " + e.getMessage());
+        }
+    }
+
+    // --- UTILIDADES ---
+    /**
+     * Feeds the history and the ratings, which must match the log position of every snapshot.
+     *
+     * @return the events' weight towards the next snapshot: a bulk import counts every team and player it carries
+     */
+    private int updateViews(List<? extends DomainEvent> events) {
+        int weight = 0;
+        for (DomainEvent event : events) {
+            weight++;
+            if (event instanceof MatchSimulatedEvent ms) {
+                history.append(ms.getTeamAId(), ms.getTeamBId(), ms.getGoalsA(), ms.getGoalsB(), ms.getPlayedAt());
+                ratings.record(ms.getTeamAId(), ms.getTeamBId(), ms.getGoalsA(), ms.getGoalsB());
+            } else if (event instanceof TeamCreatedEvent tc) {
+                ratings.addTeam(tc.getTeamId());
+            } else if (event instanceof TeamDeletedEvent td) {
+                ratings.removeTeam(td.getTeamId());
+            } else if (event instanceof RosterImportedEvent ri) {
+                ri.getTeams().forEach(team -> ratings.addTeam(team.getTeamId()));
+                weight += ri.getTeams().size() + ri.getPlayers().size() - 1;
+            }
+        }
+        return weight;
+    }
+}
@@ -36,6 +36,12 @@ public class FilePersistenceListener implements DomainEventListener<DomainEvent>
         scheduleSave();
     }
 
+    @Override
+    public synchronized void onEvents(List<? extends DomainEvent> events) {
+        // A whole batch needs a single (debounced) save
+        scheduleSave();
+    }
+
     private synchronized void scheduleSave() {
         if (pendingTask != null && !pendingTask.isDone()) {
             pendingTask.cancel(false);
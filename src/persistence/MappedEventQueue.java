@@ -0,0 +1,91 @@
+package persistence;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Layout of the shared memory-mapped event queue used to hand domain events
+ * to other processes on the same host. The file is a fixed-size ring:
+ * <pre>
+ *   [0..128)            header: magic, capacity, tail and tail intent (own cache line)
+ *   [128..128+capacity) records, each aligned to 16 bytes:
+ *                       [int length][int type][long position][event bytes]
+ * </pre>
+ * Positions are absolute byte counts that only grow; a record lives at
+ * {@code position & (capacity - 1)}. Before touching the ring the producer
+ * announces how far it is about to write (the tail intent), then writes the
+ * record with plain stores and publishes the new tail with a release store,
+ * so readers that load the tail with acquire semantics see complete
+ * records. A record that does not fit before the end of the ring is preceded
+ * by a padding record. Slow readers can be lapped: after copying a record
+ * they check the tail intent, and if the producer may have overwritten what
+ * they read they skip ahead instead of decoding garbage.
+ */
+public final class MappedEventQueue {
+    static final int MAGIC = 0x53454d51; // "SEMQ"
+    static final int HEADER_BYTES = 128;
+    static final int MAGIC_OFFSET = 0;
+    static final int CAPACITY_OFFSET = 4;
+    static final int TAIL_OFFSET = 64;
+    static final int TAIL_INTENT_OFFSET = 72;
+
+    static final int RECORD_HEADER_BYTES = 16;
+    static final int RECORD_ALIGNMENT = 16;
+    static final int TYPE_DATA = 1;
+    static final int TYPE_PADDING = 2;
+
+    /** Long view over a mapped buffer, used for acquire/release access to positions. */
+    static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private MappedEventQueue() {
+        // utility class - prevent instantiation
+    }
+
+    /**
+     * Maps the queue file, creating and formatting it if necessary.
+     *
+     * @param path     the queue file
+     * @param capacity size of the record area in bytes (power of two); ignored
+     *                 when an existing file is opened read-only
+     * @param writable true for the producer, false for consumers
+     * @return the mapped buffer in native byte order
+     * @throws IOException if the file cannot be mapped or has another layout
+     */
+    static MappedByteBuffer map(Path path, int capacity, boolean writable) throws IOException {
+        if (writable && (capacity < 4096 || Integer.bitCount(capacity) != 1)) {
+            throw new IllegalArgumentException("La capacidad de la cola debe ser potencia de dos y >= 4096: " + capacity);
+        }
+        try (FileChannel channel = writable
+                ? FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ)) {
+            boolean fresh = channel.size() == 0;
+            if (fresh && !writable) {
+                throw new IOException("La cola de eventos aún no ha sido creada por el productor: " + path);
+            }
+            long size = fresh ? HEADER_BYTES + (long) capacity : channel.size();
+            MappedByteBuffer buffer = channel.map(writable ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+            if (fresh) {
+                buffer.putInt(CAPACITY_OFFSET, capacity);
+                LONGS.setRelease(buffer, TAIL_OFFSET, 0L);
+                LONGS.setRelease(buffer, TAIL_INTENT_OFFSET, 0L);
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+            } else if (buffer.getInt(MAGIC_OFFSET) != MAGIC || size != HEADER_BYTES + (long) buffer.getInt(CAPACITY_OFFSET)) {
+                throw new IOException("El fichero no es una cola de eventos válida: " + path);
+            } else if (writable && buffer.getInt(CAPACITY_OFFSET) != capacity) {
+                throw new IOException("La cola " + path + " tiene capacidad " + buffer.getInt(CAPACITY_OFFSET) + ", no " + capacity);
+            }
+            return buffer;
+        }
+    }
+
+    static int align(int length) {
+        return (length + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+    }
+}
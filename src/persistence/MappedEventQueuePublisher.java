@@ -0,0 +1,144 @@
+package persistence;
+
+import domain.DomainErrorCode;
+import domain.DomainException;
+import events.DomainEvent;
+import events.RosterImportedEvent;
+import events.bus.DomainEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static persistence.MappedEventQueue.*;
+
+/**
+ * Bridge that appends every published domain event to a shared
+ * {@link MappedEventQueue} file so that read-side processes on the same host
+ * (reports, search indexing, ...) can follow the event stream with
+ * {@link MappedEventQueueTailer} without sockets and without sharing this
+ * JVM's heap. There is a single producer per file, enforced with a file
+ * lock. Subscribe it with {@code Delivery.INLINE} so that the queue keeps the
+ * publish order.
+ */
+public class MappedEventQueuePublisher implements DomainEventListener<DomainEvent>, Closeable {
+    private final MappedByteBuffer buffer;
+    private final FileChannel lockChannel;
+    private final FileLock producerLock;
+    private final int capacity;
+    private final int mask;
+    private final ByteArrayOutputStream payload = new ByteArrayOutputStream(256);
+    private final DataOutputStream payloadOut = new DataOutputStream(payload);
+    private long tail;
+
+    /**
+     * Opens (or creates) the queue as its single producer. An existing queue
+     * is continued from its current tail so consumer offsets stay valid.
+     *
+     * @param path     the queue file
+     * @param capacity size of the ring in bytes (power of two)
+     * @throws IOException if the file cannot be mapped or another producer owns it
+     */
+    public MappedEventQueuePublisher(Path path, int capacity) throws IOException {
+        this.lockChannel = FileChannel.open(path.resolveSibling(path.getFileName() + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Already held by another producer in this JVM
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Otro productor ya publica en la cola " + path);
+        }
+        this.producerLock = lock;
+        this.buffer = MappedEventQueue.map(path, capacity, true);
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.tail = (long) LONGS.getAcquire(buffer, TAIL_OFFSET);
+    }
+
+    @Override
+    public synchronized void onEvent(DomainEvent event) {
+        appendSplit(event);
+        LONGS.setRelease(buffer, TAIL_OFFSET, tail);
+    }
+
+    @Override
+    public synchronized void onEvents(List<? extends DomainEvent> events) {
+        for (DomainEvent event : events) {
+            appendSplit(event);
+        }
+        // Readers see the whole batch at once
+        LONGS.setRelease(buffer, TAIL_OFFSET, tail);
+    }
+
+    /** @return the absolute position right after the last appended record */
+    public synchronized long getTailPosition() { return tail; }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        producerLock.release();
+        lockChannel.close();
+    }
+
+    // --- UTILIDADES ---
+    /** A bulk import may exceed the ring, so readers get its team and player events one by one. */
+    private void appendSplit(DomainEvent event) {
+        if (event instanceof RosterImportedEvent ri) {
+            ri.toEvents().forEach(this::append);
+        } else {
+            append(event);
+        }
+    }
+
+    private void append(DomainEvent event) {
+        payload.reset();
+        try {
+            EventCodec.write(payloadOut, event);
+            payloadOut.flush();
+        } catch (IOException e) {
+            // ByteArrayOutputStream never throws
+            throw new IllegalStateException(e);
+        }
+        int length = RECORD_HEADER_BYTES + payload.size();
+        int aligned = MappedEventQueue.align(length);
+        if (aligned > capacity / 2) {
+            throw new DomainException(DomainErrorCode.PERSISTENCE_ERROR, "Evento demasiado grande para la cola compartida: " + length + " bytes");
+        }
+        int index = (int) (tail & mask);
+        int padding = index + aligned > capacity ? capacity - index : 0;
+        // Announce the bytes about to be overwritten before writing any of them
+        LONGS.setOpaque(buffer, TAIL_INTENT_OFFSET, tail + padding + aligned);
+        VarHandle.storeStoreFence();
+        if (padding > 0) {
+            writeHeader(index, padding, TYPE_PADDING, tail);
+            tail += padding;
+            index = 0;
+        }
+        int offset = HEADER_BYTES + index + RECORD_HEADER_BYTES;
+        byte[] bytes = payload.toByteArray();
+        buffer.put(offset, bytes, 0, bytes.length);
+        writeHeader(index, length, TYPE_DATA, tail);
+        tail += aligned;
+    }
+
+    private void writeHeader(int index, int length, int type, long position) {
+        int offset = HEADER_BYTES + index;
+        buffer.putInt(offset, length);
+        buffer.putInt(offset + 4, type);
+        buffer.putLong(offset + 8, position);
+    }
+}
@@ -0,0 +1,174 @@
+package persistence;
+
+import events.DomainEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static persistence.MappedEventQueue.*;
+
+/**
+ * Consumer of a {@link MappedEventQueue}. Any number of tailers, in this or
+ * other JVMs on the same host, can follow the same queue; each one keeps its
+ * own position in a small memory-mapped offset file
+ * ({@code <queue>.<consumer>.offset}) so it resumes where it left off after
+ * a restart. A consumer that falls more than a full ring behind the producer
+ * is lapped: it skips to the newest position and counts the lap.
+ */
+public class MappedEventQueueTailer implements Closeable {
+    private static final int SPINS_BEFORE_YIELD = 10_000;
+    private static final int YIELDS_BEFORE_PARK = 100;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    private final MappedByteBuffer buffer;
+    private final MappedByteBuffer offsetBuffer;
+    private final int capacity;
+    private final int mask;
+    private long cursor;
+    private long laps;
+
+    /**
+     * @param queue        the queue file written by a {@link MappedEventQueuePublisher}
+     * @param consumerName identifies this consumer's offset file
+     * @throws IOException if the files cannot be mapped
+     */
+    public MappedEventQueueTailer(Path queue, String consumerName) throws IOException {
+        this.buffer = MappedEventQueue.map(queue, 0, false);
+        this.capacity = buffer.getInt(CAPACITY_OFFSET);
+        this.mask = capacity - 1;
+        Path offsetPath = queue.resolveSibling(queue.getFileName() + "." + consumerName + ".offset");
+        try (FileChannel channel = FileChannel.open(offsetPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.offsetBuffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES);
+            this.offsetBuffer.order(ByteOrder.nativeOrder());
+        }
+        this.cursor = (long) LONGS.getAcquire(offsetBuffer, 0);
+    }
+
+    /**
+     * Delivers the events available right now, up to {@code limit}, and
+     * stores the new offset. Never blocks.
+     *
+     * @param handler receives each event in queue order
+     * @param limit   maximum number of events to deliver
+     * @return the number of events delivered
+     */
+    public int poll(Consumer<DomainEvent> handler, int limit) {
+        long tail = (long) LONGS.getAcquire(buffer, TAIL_OFFSET);
+        int delivered = 0;
+        while (delivered < limit && cursor < tail) {
+            if (tail - cursor > capacity) {
+                skipTo(tail);
+                break;
+            }
+            int offset = HEADER_BYTES + (int) (cursor & mask);
+            int length = buffer.getInt(offset);
+            int type = buffer.getInt(offset + 4);
+            long position = buffer.getLong(offset + 8);
+            // A header torn by a lapping producer may pair a matching position with a new length:
+            // a record never wraps, so one that would run past the end of the ring is not ours
+            if (position != cursor || length < RECORD_HEADER_BYTES || (cursor & mask) + length > capacity) {
+                skipTo(tail);
+                break;
+            }
+            if (type == TYPE_PADDING) {
+                cursor += length;
+                continue;
+            }
+            byte[] bytes = new byte[length - RECORD_HEADER_BYTES];
+            buffer.get(offset + RECORD_HEADER_BYTES, bytes, 0, bytes.length);
+            // Anything the producer overwrote while we copied is covered by its intent
+            VarHandle.loadLoadFence();
+            long intent = (long) LONGS.getVolatile(buffer, TAIL_INTENT_OFFSET);
+            if (intent - cursor > capacity) {
+                skipTo((long) LONGS.getAcquire(buffer, TAIL_OFFSET));
+                break;
+            }
+            cursor += MappedEventQueue.align(length);
+            handler.accept(decode(bytes));
+            delivered++;
+        }
+        LONGS.setRelease(offsetBuffer, 0, cursor);
+        return delivered;
+    }
+
+    /**
+     * Follows the queue until {@code keepRunning} returns false. While events
+     * keep arriving the thread busy-spins, which gives microsecond latency;
+     * when the queue stays idle it backs off to yielding and then parking.
+     *
+     * @param handler     receives each event in queue order
+     * @param keepRunning checked between polls
+     */
+    public void run(Consumer<DomainEvent> handler, BooleanSupplier keepRunning) {
+        int idle = 0;
+        while (keepRunning.getAsBoolean()) {
+            if (poll(handler, 256) > 0) {
+                idle = 0;
+            } else if (idle < SPINS_BEFORE_YIELD) {
+                idle++;
+                Thread.onSpinWait();
+            } else if (idle < SPINS_BEFORE_YIELD + YIELDS_BEFORE_PARK) {
+                idle++;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1_000L << Math.min(10, idle++ - SPINS_BEFORE_YIELD - YIELDS_BEFORE_PARK)));
+            }
+        }
+    }
+
+    /** @return this consumer's absolute position in the queue */
+    public long getPosition() { return cursor; }
+
+    /** @return how many times this consumer was lapped and lost events */
+    public long getLaps() { return laps; }
+
+    @Override
+    public void close() {
+        offsetBuffer.force();
+    }
+
+    // --- UTILIDADES ---
+    private void skipTo(long tail) {
+        laps++;
+        System.err.println("Consumidor adelantado por el productor: se pierden " + (tail - cursor) + " bytes de eventos.");
+        cursor = tail;
+    }
+
+    private static DomainEvent decode(byte[] bytes) {
+        try {
+            return EventCodec.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Registro corrupto en la cola de eventos", e);
+        }
+    }
+
+    /**
+     * Prints the event stream of a queue, e.g. from another JVM:
+     * {@code java -cp out persistence.MappedEventQueueTailer data/events.queue informes}
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: MappedEventQueueTailer <fichero-cola> <nombre-consumidor>");
+            return;
+        }
+        Path queue = Path.of(args[0]);
+        while (!Files.exists(queue) || Files.size(queue) == 0) {
+            LockSupport.parkNanos(100_000_000L);
+        }
+        try (MappedEventQueueTailer tailer = new MappedEventQueueTailer(queue, args[1])) {
+            tailer.run(event -> System.out.println(event.getClass().getSimpleName() + " @" + tailer.getPosition()), () -> true);
+        }
+    }
+}
@@ -116,9 +116,7 @@ public class SnapshotSerializer {
                 String coach = unescapeCsv(parts[3]);
                 String formation = unescapeCsv(parts[4]);
                 int matchesWon = Integer.parseInt(parts[5]);
-                Team team = new Team(name, city, coach, formation);
-                team.setTeamId(teamId);
-                team.setMatchesWon(matchesWon);
+                Team team = new Team(teamId, name, city, coach, formation, matchesWon);
                 teamMap.put(teamId, team);
             }
         }
@@ -152,9 +150,7 @@ public class SnapshotSerializer {
                 String fieldLocation = unescapeCsv(parts[4]);
                 int squadNumber = Integer.parseInt(parts[5]);
                 int goals = Integer.parseInt(parts[6]);
-                Player player = new Player(teamId, fullName, birthYear, fieldLocation, squadNumber);
-                player.setGoals(goals);
-                player.setPlayerId(playerId);
+                Player player = new Player(teamId, playerId, fullName, birthYear, fieldLocation, squadNumber, goals);
                 playerMap.put(playerId, player);
             }
         }
@@ -204,9 +200,7 @@ public class SnapshotSerializer {
             String coach = (String) tMap.get("coach");
             String formation = (String) tMap.get("formation");
             int matchesWon = ((Number) tMap.get("matchesWon")).intValue();
-            Team team = new Team(name, city, coach, formation);
-            team.setTeamId(teamId);
-            team.setMatchesWon(matchesWon);
+            Team team = new Team(teamId, name, city, coach, formation, matchesWon);
             teams.add(team);
         }
         return teams;
@@ -256,9 +250,7 @@ public class SnapshotSerializer {
             String fieldLocation = (String) pMap.get("fieldLocation");
             int squadNumber = ((Number) pMap.get("squadNumber")).intValue();
             int goals = ((Number) pMap.get("goals")).intValue();
-            Player player = new Player(teamId, fullName, birthYear, fieldLocation, squadNumber);
-            player.setGoals(goals);
-            player.setPlayerId(playerId);
+            Player player = new Player(teamId, playerId, fullName, birthYear, fieldLocation, squadNumber, goals);
             players.add(player);
         }
         return players;
@@ -0,0 +1,48 @@
+package query;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A comparison between a field of the entity and a constant. Conditions are
+ * data rather than lambdas so that the planner can see which fields they
+ * restrict and use an index on them.
+ *
+ * @param <T> the entity type
+ */
+public final class Condition<T> {
+
+    public enum Operator { EQ, LT, LE, GT, GE }
+
+    private final Field<T, ?> field;
+    private final Operator operator;
+    private final Object value;
+    private final Predicate<T> matcher;
+
+    <V extends Comparable<? super V>> Condition(Field<T, V> field, Operator operator, V value) {
+        this.field = field;
+        this.operator = operator;
+        this.value = Objects.requireNonNull(value, "El valor de la condición no puede ser nulo.");
+        this.matcher = entity -> accepts(operator, field.valueOf(entity).compareTo(value));
+    }
+
+    public Field<T, ?> getField() { return this.field; }
+    public Operator getOperator() { return this.operator; }
+    public Object getValue() { return this.value; }
+
+    /** @return whether the entity satisfies the condition */
+    public boolean test(T entity) { return matcher.test(entity); }
+
+    private static boolean accepts(Operator operator, int comparison) {
+        return switch (operator) {
+            case EQ -> comparison == 0;
+            case LT -> comparison < 0;
+            case LE -> comparison <= 0;
+            case GT -> comparison > 0;
+            case GE -> comparison >= 0;
+        };
+    }
+
+    @Override
+    public String toString() { return field + " " + operator + " " + value; }
+}
@@ -0,0 +1,25 @@
+package query;
+
+/**
+ * Position right after the last item of a {@link Page}. Passing it to
+ * {@link Query.Builder#after(Cursor)} continues from there, whatever was
+ * inserted or deleted before that position in between. Only valid with the
+ * same sort field and direction that produced it.
+ */
+public final class Cursor {
+    private final String sortField;
+    private final Query.Direction direction;
+    private final Object sortValue, id;
+
+    Cursor(String sortField, Query.Direction direction, Object sortValue, Object id) {
+        this.sortField = sortField;
+        this.direction = direction;
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    String getSortField() { return this.sortField; }
+    Query.Direction getDirection() { return this.direction; }
+    Object getSortValue() { return this.sortValue; }
+    Object getId() { return this.id; }
+}
@@ -0,0 +1,40 @@
+package query;
+
+import java.util.function.Function;
+
+/**
+ * A named, comparable attribute of an entity. Fields build the conditions of
+ * a {@link Query} and are its sort keys; a {@link QueryEngine} may also have
+ * an index on a field.
+ *
+ * @param <T> the entity type
+ * @param <V> the attribute type
+ */
+public final class Field<T, V extends Comparable<? super V>> {
+    private final String name;
+    private final Function<T, V> getter;
+
+    /**
+     * @param name   name shown in query plans and errors
+     * @param getter reads the attribute; must never return {@code null}
+     */
+    public Field(String name, Function<T, V> getter) {
+        this.name = name;
+        this.getter = getter;
+    }
+
+    public String getName() { return this.name; }
+
+    /** @return the attribute of the given entity */
+    public V valueOf(T entity) { return getter.apply(entity); }
+
+    // -------- CONDICIONES --------
+    public Condition<T> eq(V value) { return new Condition<>(this, Condition.Operator.EQ, value); }
+    public Condition<T> lt(V value) { return new Condition<>(this, Condition.Operator.LT, value); }
+    public Condition<T> le(V value) { return new Condition<>(this, Condition.Operator.LE, value); }
+    public Condition<T> gt(V value) { return new Condition<>(this, Condition.Operator.GT, value); }
+    public Condition<T> ge(V value) { return new Condition<>(this, Condition.Operator.GE, value); }
+
+    @Override
+    public String toString() { return name; }
+}
@@ -0,0 +1,26 @@
+package query;
+
+import java.util.List;
+
+/**
+ * One page of query results.
+ *
+ * @param <R> the projected item type
+ */
+public final class Page<R> {
+    private final List<R> items;
+    private final Cursor next;
+    private final String plan;
+
+    Page(List<R> items, Cursor next, String plan) {
+        this.items = List.copyOf(items);
+        this.next = next;
+        this.plan = plan;
+    }
+
+    public List<R> getItems() { return this.items; }
+    /** @return the cursor for the following page, or {@code null} if this is the last one */
+    public Cursor getNext() { return this.next; }
+    /** @return how the query was answered: the index used or a scan */
+    public String getPlan() { return this.plan; }
+}
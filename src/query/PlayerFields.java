@@ -0,0 +1,30 @@
+package query;
+
+import model.Player;
+import model.Position;
+
+import java.time.Year;
+import java.util.UUID;
+
+/**
+ * Fields of {@link Player} available to queries.
+ */
+public final class PlayerFields {
+    private static final int CURRENT_YEAR = Year.now().getValue();
+
+    public static final Field<Player, UUID> ID = new Field<>("id", Player::getPlayerId);
+    public static final Field<Player, UUID> TEAM_ID = new Field<>("equipo", Player::getTeamId);
+    public static final Field<Player, String> NAME = new Field<>("nombre", Player::getFullName);
+    public static final Field<Player, Integer> BIRTH_YEAR = new Field<>("año de nacimiento", Player::getBirthYear);
+    /** Age reached this year, derived from the birth year. */
+    public static final Field<Player, Integer> AGE = new Field<>("edad", player -> CURRENT_YEAR - player.getBirthYear());
+    public static final Field<Player, String> POSITION = new Field<>("posición", Player::getFieldLocation);
+    /** Position code derived from the position text. */
+    public static final Field<Player, Position> ROLE = new Field<>("demarcación", Player::getPosition);
+    public static final Field<Player, Integer> SQUAD_NUMBER = new Field<>("dorsal", Player::getSquadNumber);
+    public static final Field<Player, Integer> GOALS = new Field<>("goles", Player::getGoals);
+
+    private PlayerFields() {
+        // utility class - prevent instantiation
+    }
+}
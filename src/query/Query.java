@@ -0,0 +1,108 @@
+package query;
+
+import domain.DomainErrorCode;
+import domain.DomainException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A read-only query: the conjunction of some conditions, a sort key, and the
+ * window of results to return, either by offset or after a {@link Cursor}.
+ * Ties in the sort key, and queries without one, are ordered by id, so the
+ * order is total and pages never overlap.
+ *
+ * @param <T> the entity type
+ */
+public final class Query<T> {
+
+    public enum Direction { ASC, DESC }
+
+    /** Largest page a query may request. */
+    public static final int MAX_LIMIT = 10_000;
+    /** Largest offset: every thread keeps offset + limit results, so deeper pages must use a cursor. */
+    public static final int MAX_OFFSET = 100_000;
+
+    private final List<Condition<T>> conditions;
+    private final Field<T, ?> sortField;
+    private final Direction direction;
+    private final int offset, limit;
+    private final Cursor after;
+
+    private Query(Builder<T> builder) {
+        this.conditions = List.copyOf(builder.conditions);
+        this.sortField = builder.sortField;
+        this.direction = builder.direction;
+        this.offset = builder.offset;
+        this.limit = builder.limit;
+        this.after = builder.after;
+    }
+
+    public static <T> Builder<T> builder() { return new Builder<>(); }
+
+    // -------- GETTERS --------
+    public List<Condition<T>> getConditions() { return this.conditions; }
+    /** @return the sort key, or {@code null} to order by id only */
+    public Field<T, ?> getSortField() { return this.sortField; }
+    public Direction getDirection() { return this.direction; }
+    public int getOffset() { return this.offset; }
+    public int getLimit() { return this.limit; }
+    /** @return the cursor to continue from, or {@code null} to start at the first result */
+    public Cursor getAfter() { return this.after; }
+
+    public static final class Builder<T> {
+        private final List<Condition<T>> conditions = new ArrayList<>();
+        private Field<T, ?> sortField;
+        private Direction direction = Direction.ASC;
+        private int offset = 0, limit = 20;
+        private Cursor after;
+
+        private Builder() {}
+
+        /** Adds a condition; all conditions must hold. */
+        public Builder<T> where(Condition<T> condition) {
+            conditions.add(condition);
+            return this;
+        }
+
+        public Builder<T> orderBy(Field<T, ?> field, Direction direction) {
+            this.sortField = field;
+            this.direction = direction;
+            return this;
+        }
+
+        /** Skips this many results, counted after the cursor if there is one. */
+        public Builder<T> offset(int offset) {
+            if (offset < 0 || offset > MAX_OFFSET) {
+                throw new DomainException(DomainErrorCode.VALIDATION_ERROR,
+                        "El desplazamiento debe estar entre 0 y " + MAX_OFFSET + "; para ir más lejos use un cursor.");
+            }
+            this.offset = offset;
+            return this;
+        }
+
+        public Builder<T> limit(int limit) {
+            if (limit < 1 || limit > MAX_LIMIT) {
+                throw new DomainException(DomainErrorCode.VALIDATION_ERROR,
+                        "El tamaño de página debe estar entre 1 y " + MAX_LIMIT + ".");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        /** Continues after the last item of a previous page of the same ordering. */
+        public Builder<T> after(Cursor cursor) {
+            this.after = cursor;
+            return this;
+        }
+
+        public Query<T> build() {
+            if (after != null && (!after.getSortField().equals(sortField == null ? "" : sortField.getName())
+                    || after.getDirection() != direction)) {
+                throw new DomainException(DomainErrorCode.VALIDATION_ERROR,
+                        "El cursor no corresponde a la ordenación de la consulta.");
+            }
+            return new Query<>(this);
+        }
+    }
+}
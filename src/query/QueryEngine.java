@@ -0,0 +1,221 @@
+package query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Answers {@link Query queries} over one entity type.
+ * <ul>
+ *   <li><b>Plan:</b> if a condition is an equality on a field with an index,
+ *       the candidates are the ones that index returns; indexes are tried in
+ *       the order they were registered, so the most selective goes first.
+ *       Otherwise every entity is scanned, in parallel.</li>
+ *   <li><b>Top-K:</b> matching entities go into a bounded heap of
+ *       {@code offset + limit + 1} items, one per scanned chunk, merged at
+ *       the end; the full result is never materialised, and only the
+ *       returned page is projected.</li>
+ *   <li><b>Consistency:</b> scans read live data while it may be written.
+ *       Each candidate's sort key is read once, so the order is well defined
+ *       even if the entity changes later, but a page may mix values from
+ *       before and after a concurrent write.</li>
+ * </ul>
+ *
+ * @param <T> the entity type
+ */
+public final class QueryEngine<T> {
+    private final Field<T, ?> idField;
+    private final Supplier<Stream<T>> scan;
+    private final List<Index<T>> indexes = new ArrayList<>();
+
+    /**
+     * @param idField unique key of the entity, the tie-break of every ordering
+     * @param scan    supplies a stream over all entities
+     */
+    public QueryEngine(Field<T, ?> idField, Supplier<Stream<T>> scan) {
+        this.idField = idField;
+        this.scan = scan;
+    }
+
+    /**
+     * Registers an index answering equality conditions on a field. Its
+     * results are filtered by all the conditions again, so it may return
+     * extra entities but must not miss any.
+     *
+     * @param field  the indexed field
+     * @param lookup entities whose field equals the given value; never {@code null}
+     * @return this engine
+     */
+    @SuppressWarnings("unchecked")
+    public <V extends Comparable<? super V>> QueryEngine<T> withIndex(Field<T, V> field,
+                                                                      Function<V, ? extends Collection<T>> lookup) {
+        indexes.add(new Index<>(field, value -> lookup.apply((V) value)));
+        return this;
+    }
+
+    /**
+     * @param query      what to find
+     * @param projection applied to the items of the returned page only
+     * @return the requested page
+     */
+    public <R> Page<R> execute(Query<T> query, Function<? super T, ? extends R> projection) {
+        Field<T, ?> sortField = query.getSortField();
+        Comparator<Hit<T>> order = order(query.getDirection());
+        Hit<T> after = cursorHit(query.getAfter());
+        // One more than the page tells whether another page follows; bounded by MAX_OFFSET + MAX_LIMIT
+        int window = query.getOffset() + query.getLimit() + 1;
+
+        Stream<T> candidates;
+        String plan;
+        Condition<T> indexed = null;
+        Index<T> index = null;
+        for (Index<T> candidate : indexes) {
+            indexed = equalityOn(query, candidate.field);
+            if (indexed != null) {
+                index = candidate;
+                break;
+            }
+        }
+        if (index != null) {
+            candidates = index.lookup.apply(indexed.getValue()).stream();
+            plan = "índice " + index.field.getName();
+        } else {
+            candidates = scan.get().parallel();
+            plan = "escaneo paralelo";
+        }
+
+        List<Hit<T>> top = candidates
+                .filter(entity -> matches(query, entity))
+                .collect(Collector.of(
+                        () -> new TopK<>(window, order, after),
+                        (best, entity) -> best.offer(entity, sortField == null ? null : sortField.valueOf(entity),
+                                idField.valueOf(entity)),
+                        TopK::merge,
+                        TopK::sorted));
+
+        int from = Math.min(query.getOffset(), top.size());
+        int to = Math.min(from + query.getLimit(), top.size());
+        List<R> items = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            items.add(projection.apply(top.get(i).entity));
+        }
+        Cursor next = null;
+        if (top.size() > to) {
+            Hit<T> last = top.get(to - 1);
+            next = new Cursor(sortField == null ? "" : sortField.getName(), query.getDirection(), last.key, last.id);
+        }
+        return new Page<>(items, next, plan);
+    }
+
+    // --- UTILIDADES ---
+    private static <T> Condition<T> equalityOn(Query<T> query, Field<T, ?> field) {
+        for (Condition<T> condition : query.getConditions()) {
+            if (condition.getField() == field && condition.getOperator() == Condition.Operator.EQ) {
+                return condition;
+            }
+        }
+        return null;
+    }
+
+    private static <T> boolean matches(Query<T> query, T entity) {
+        for (Condition<T> condition : query.getConditions()) {
+            if (!condition.test(entity)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> Hit<T> cursorHit(Cursor cursor) {
+        return cursor == null ? null : new Hit<>(null, cursor.getSortValue(), cursor.getId());
+    }
+
+    private static <T> Comparator<Hit<T>> order(Query.Direction direction) {
+        int sign = direction == Query.Direction.DESC ? -1 : 1;
+        return (a, b) -> {
+            int byKey = a.key == null ? 0 : sign * compare(a.key, b.key);
+            return byKey != 0 ? byKey : compare(a.id, b.id);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object a, Object b) {
+        return ((Comparable) a).compareTo(b);
+    }
+
+    /**
+     * Keeps the {@code k} first hits in {@code order} that come after the
+     * cursor. A candidate is compared with the worst kept hit before a
+     * {@link Hit} is allocated for it, so once the heap is full most
+     * candidates cost no allocation.
+     */
+    private static final class TopK<T> {
+        private final int k;
+        private final Comparator<Hit<T>> order;
+        private final Hit<T> after;
+        private final PriorityQueue<Hit<T>> heap;
+        // Reused to compare a candidate before it earns its own hit
+        private final Hit<T> probe = new Hit<>(null, null, null);
+
+        TopK(int k, Comparator<Hit<T>> order, Hit<T> after) {
+            this.k = k;
+            this.order = order;
+            this.after = after;
+            this.heap = new PriorityQueue<>(order.reversed());
+        }
+
+        void offer(T entity, Object key, Object id) {
+            probe.key = key;
+            probe.id = id;
+            if (after != null && order.compare(probe, after) <= 0) return;
+            if (heap.size() == k && order.compare(probe, heap.peek()) >= 0) return;
+            add(new Hit<>(entity, key, id));
+        }
+
+        TopK<T> merge(TopK<T> other) {
+            for (Hit<T> hit : other.heap) {
+                if (heap.size() < k || order.compare(hit, heap.peek()) < 0) add(hit);
+            }
+            return this;
+        }
+
+        List<Hit<T>> sorted() {
+            List<Hit<T>> sorted = new ArrayList<>(heap);
+            sorted.sort(order);
+            return sorted;
+        }
+
+        private void add(Hit<T> hit) {
+            heap.add(hit);
+            if (heap.size() > k) heap.poll();
+        }
+    }
+
+    private static final class Index<T> {
+        final Field<T, ?> field;
+        final Function<Object, ? extends Collection<T>> lookup;
+
+        Index(Field<T, ?> field, Function<Object, ? extends Collection<T>> lookup) {
+            this.field = field;
+            this.lookup = lookup;
+        }
+    }
+
+    /** A candidate with its sort key and id read once. */
+    private static final class Hit<T> {
+        final T entity;
+        Object key, id;
+
+        Hit(T entity, Object key, Object id) {
+            this.entity = entity;
+            this.key = key;
+            this.id = id;
+        }
+    }
+}
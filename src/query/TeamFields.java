@@ -0,0 +1,21 @@
+package query;
+
+import model.Team;
+
+import java.util.UUID;
+
+/**
+ * Fields of {@link Team} available to queries.
+ */
+public final class TeamFields {
+    public static final Field<Team, UUID> ID = new Field<>("id", Team::getTeamId);
+    public static final Field<Team, String> NAME = new Field<>("nombre", Team::getName);
+    public static final Field<Team, String> CITY = new Field<>("ciudad", Team::getCity);
+    public static final Field<Team, String> COACH = new Field<>("entrenador", Team::getCoach);
+    public static final Field<Team, String> FORMATION = new Field<>("formación", Team::getFormation);
+    public static final Field<Team, Integer> MATCHES_WON = new Field<>("victorias", Team::getMatchesWon);
+
+    private TeamFields() {
+        // utility class - prevent instantiation
+    }
+}
@@ -0,0 +1,95 @@
+package repository;
+
+import model.Player;
+import model.Team;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes staged by a unit of work, grouped by team, for
+ * {@link TeamRepository#commit}. Every team touched carries the version it
+ * had when the unit first read it ({@code 0} for a team that did not exist);
+ * the commit applies the team's writes only if it is still at that version.
+ * Later writes to the same team or player replace earlier ones.
+ */
+public final class ChangeSet {
+    private final Map<UUID, TeamChanges> byTeam = new LinkedHashMap<>();
+
+    /**
+     * Records the version a team was read at. Only the first call per team
+     * counts: that is the state every later decision of the unit built on.
+     */
+    public void expect(UUID teamId, long version) {
+        byTeam.computeIfAbsent(teamId, id -> new TeamChanges(id, version));
+    }
+
+    /** @return whether the team has been read or written by this change set */
+    public boolean touches(UUID teamId) { return byTeam.containsKey(teamId); }
+
+    public void saveTeam(Team team) {
+        TeamChanges changes = changesOf(team.getTeamId());
+        changes.team = team;
+        changes.deleted = false;
+    }
+
+    /** Deletes the team; its players, staged or stored, are deleted with it. */
+    public void deleteTeam(UUID teamId) {
+        TeamChanges changes = changesOf(teamId);
+        changes.team = null;
+        changes.deleted = true;
+        changes.players.clear();
+    }
+
+    public void savePlayer(Player player) {
+        changesOf(player.getTeamId()).players.put(player.getPlayerId(), player);
+    }
+
+    public void deletePlayer(UUID teamId, UUID playerId) {
+        changesOf(teamId).players.put(playerId, null);
+    }
+
+    /** @return the changes of every team touched, in the order they were first touched */
+    public Collection<TeamChanges> getTeams() { return byTeam.values(); }
+
+    /** @return the changes of the team, or {@code null} if it has not been touched */
+    public TeamChanges getTeam(UUID teamId) { return byTeam.get(teamId); }
+
+    public boolean isEmpty() { return byTeam.isEmpty(); }
+
+    // --- UTILIDADES ---
+    private TeamChanges changesOf(UUID teamId) {
+        TeamChanges changes = byTeam.get(teamId);
+        if (changes == null) {
+            throw new IllegalStateException("El equipo " + teamId + " se modifica sin haberlo leído antes.");
+        }
+        return changes;
+    }
+
+    /** Staged writes of one team. */
+    public static final class TeamChanges {
+        private final UUID teamId;
+        private final long expectedVersion;
+        private Team team;
+        private boolean deleted;
+        // Player id to the player to save, or to null to delete it
+        private final Map<UUID, Player> players = new LinkedHashMap<>();
+
+        private TeamChanges(UUID teamId, long expectedVersion) {
+            this.teamId = teamId;
+            this.expectedVersion = expectedVersion;
+        }
+
+        public UUID getTeamId() { return this.teamId; }
+        public long getExpectedVersion() { return this.expectedVersion; }
+        /** @return the team to save, or {@code null} to keep the stored one */
+        public Team getTeam() { return this.team; }
+        public boolean isDeleted() { return this.deleted; }
+        /** @return player id to the player to save, or to {@code null} to delete it */
+        public Map<UUID, Player> getPlayers() { return this.players; }
+        /** @return whether anything but the read version was recorded */
+        public boolean hasWrites() { return deleted || team != null || !players.isEmpty(); }
+    }
+}
@@ -0,0 +1,40 @@
+package repository;
+
+/**
+ * Repository operation for the writes of a unit of work. Separate from the
+ * rest of {@link TeamRepository} so that a store that logs every write can
+ * apply a change set and record its events in one step, as
+ * {@link StatsRepository} does for match statistics.
+ */
+public interface ChangeSetRepository {
+
+    /**
+     * Applies the writes of a unit of work. The writes of each team,
+     * including its players, are applied together only if the team is still
+     * at the version the unit read, and the team's version is then
+     * incremented once. If any team of the change set has changed, the
+     * writes already applied to the other teams are undone and nothing
+     * remains of the change set.
+     *
+     * @param changes the staged writes
+     * @throws domain.DomainException with {@code CONCURRENT_MODIFICATION} if a team changed or is gone
+     */
+    void commit(ChangeSet changes);
+
+    /**
+     * Applies the writes and then runs {@code announce}, which publishes the
+     * events recording them. Implementations that log the events can make
+     * the pair atomic, so that two change sets on the same team reach the
+     * log in the order they were applied; implementations that can undo
+     * their writes undo them if {@code announce} throws.
+     *
+     * @param changes  the staged writes
+     * @param announce publishes the events of the writes
+     * @throws domain.DomainException with {@code CONCURRENT_MODIFICATION} if a team changed or is
+     *                                gone (nothing is announced then), or whatever {@code announce} throws
+     */
+    default void commit(ChangeSet changes, Runnable announce) {
+        commit(changes);
+        announce.run();
+    }
+}
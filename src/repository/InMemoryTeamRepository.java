@@ -1,23 +1,74 @@
 package repository;
 
+import domain.DomainErrorCode;
+import domain.DomainException;
 import model.Player;
+import model.StatsDelta;
 import model.Team;
+import model.TeamSummary;
+import util.ShortIdIndex;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * Implementación en memoria de TeamRepository.
  * Usa Concurrent Maps - Thread-Safe
+ * <p>
+ * Versioned writes check and stamp the version inside
+ * {@link ConcurrentHashMap#compute}, which locks only that key, so writes to
+ * different teams never wait for each other. A roster change runs inside
+ * the compute of its team: the team cannot change or be deleted while its
+ * players are written.
+ * <p>
+ * Every team has an index of its players' ids, updated inside the compute
+ * of the player, so a roster lookup or a cascading delete costs the size of
+ * the squad, not the number of players stored. A stored player never
+ * changes team: moving one means saving it again with the new team.
+ * <p>
+ * Next to the index, every team has the totals of its squad (players, goals
+ * and the sum of birth years), adjusted by the same computes that write a
+ * player or add goals, so a team summary is one lookup instead of a pass
+ * over the roster.
+ * <p>
+ * Entities are immutable, so every write is the swap of one reference and
+ * reads are plain lock-free map lookups whose result stays valid after the
+ * lookup. Goals and wins are counters owned by {@link #applyStats}: a write
+ * that replaces a stored entity keeps the stored counters, so a copy read
+ * before a match can never undo that match's goals.
+ * <p>
+ * Ids can also be looked up by their first or last characters through a
+ * {@link ShortIdIndex} per entity, which writes mark stale only when they
+ * add or remove an id, and only once the compute has returned and the map
+ * shows the change: marked earlier, a lookup could rebuild in between and
+ * keep the old ids as current.
  */
-public class InMemoryTeamRepository implements TeamRepository, PlayerRepository {
+public class InMemoryTeamRepository implements TeamRepository, PlayerRepository, StatsRepository {
     private final Map<UUID, Team> teams = new ConcurrentHashMap<>();
     private final Map<UUID, Player> players = new ConcurrentHashMap<>();
+    // Team id to the ids of its players
+    private final Map<UUID, Set<UUID>> rosters = new ConcurrentHashMap<>();
+    // Team id to the totals of its players, absent for an empty squad
+    private final Map<UUID, SquadTotals> totals = new ConcurrentHashMap<>();
+    private final ShortIdIndex teamShortIds = new ShortIdIndex(teams::keySet);
+    private final ShortIdIndex playerShortIds = new ShortIdIndex(players::keySet);
 
     // --- MÉTODOS DE TEAM REPOSITORY ---
     @Override
     public void saveTeam(Team team) {
-        teams.put(team.getTeamId(), team);
+        Team stored = teams.compute(team.getTeamId(), (id, current) ->
+                keepCounters(team, current).withVersion(versionOf(current) + 1));
+        if (stored.getVersion() == 1) teamShortIds.invalidate();
+    }
+
+    @Override
+    public void saveTeam(Team team, long expectedVersion) {
+        teams.compute(team.getTeamId(), (id, current) -> {
+            requireVersion(versionOf(current), expectedVersion, "El equipo " + id);
+            return keepCounters(team, current).withVersion(expectedVersion + 1);
+        });
+        if (expectedVersion == 0) teamShortIds.invalidate();
     }
 
     @Override
@@ -32,10 +83,29 @@ public class InMemoryTeamRepository implements TeamRepository, PlayerRepository
 
     @Override
     public void deleteTeam(UUID teamId) {
-        Team removed = teams.remove(teamId);
-        if (removed != null) {
-            players.values().removeIf(player -> player.getTeamId().equals(teamId));
-        }
+        boolean[] removed = new boolean[1];
+        teams.computeIfPresent(teamId, (id, current) -> {
+            removeRoster(id);
+            removed[0] = true;
+            return null;
+        });
+        if (removed[0]) teamShortIds.invalidate();
+    }
+
+    @Override
+    public void deleteTeam(UUID teamId, long expectedVersion) {
+        teams.compute(teamId, (id, current) -> {
+            if (current == null) throw conflict("El equipo " + id + " ya no existe.");
+            requireVersion(current.getVersion(), expectedVersion, "El equipo " + id);
+            removeRoster(id);
+            return null;
+        });
+        teamShortIds.invalidate();
+    }
+
+    @Override
+    public List<UUID> findTeamIdsByShortId(String shortId, int limit) {
+        return teamShortIds.find(shortId, limit);
     }
 
     @Override
@@ -43,10 +113,49 @@ public class InMemoryTeamRepository implements TeamRepository, PlayerRepository
         return List.copyOf(teams.values());
     }
 
+    @Override
+    public Optional<TeamSummary> findTeamSummary(UUID teamId) {
+        Team team = teams.get(teamId);
+        return team == null ? Optional.empty() : Optional.of(summaryOf(team));
+    }
+
+    @Override
+    public List<TeamSummary> findAllTeamSummaries() {
+        List<TeamSummary> summaries = new ArrayList<>(teams.size());
+        for (Team team : teams.values()) {
+            summaries.add(summaryOf(team));
+        }
+        return summaries;
+    }
+
+    @Override
+    public Stream<Team> streamAllTeams() {
+        return teams.values().stream();
+    }
+
+    @Override
+    public void commit(ChangeSet changes) {
+        applyAll(changes);
+    }
+
+    /** Undoes the writes if {@code announce} fails, e.g. when the event log cannot be written. */
+    @Override
+    public void commit(ChangeSet changes, Runnable announce) {
+        Deque<Undo> applied = applyAll(changes);
+        try {
+            announce.run();
+        } catch (RuntimeException e) {
+            undoAll(applied);
+            throw e;
+        }
+    }
+
     // --- MÉTODOS DE PLAYER REPOSITORY ---
     @Override
     public void savePlayer(Player player) {
-        players.put(player.getPlayerId(), player);
+        putPlayer(player);
+        // The roster changed: optimistic writers that read the team before must retry
+        teams.computeIfPresent(player.getTeamId(), (id, team) -> team.withVersion(team.getVersion() + 1));
     }
 
     @Override
@@ -54,6 +163,21 @@ public class InMemoryTeamRepository implements TeamRepository, PlayerRepository
         playersList.forEach(this::savePlayer);
     }
 
+    @Override
+    public void savePlayers(UUID teamId, List<Player> roster, long expectedTeamVersion) {
+        teams.compute(teamId, (id, team) -> {
+            if (team == null) throw conflict("El equipo " + id + " ya no existe.");
+            requireVersion(team.getVersion(), expectedTeamVersion, "El equipo " + id);
+            for (Player player : roster) {
+                if (!player.getTeamId().equals(id)) {
+                    throw new IllegalArgumentException("El jugador " + player.getPlayerId() + " no es del equipo " + id);
+                }
+                putPlayer(player);
+            }
+            return team.withVersion(expectedTeamVersion + 1);
+        });
+    }
+
     @Override
     public Optional<Player> findPlayer(UUID playerId) {
         return Optional.ofNullable(players.get(playerId));
@@ -61,7 +185,27 @@ public class InMemoryTeamRepository implements TeamRepository, PlayerRepository
 
     @Override
     public void deletePlayer(UUID playerId) {
-        players.remove(playerId);
+        Player removed = removePlayer(playerId);
+        if (removed != null) {
+            teams.computeIfPresent(removed.getTeamId(), (id, team) -> team.withVersion(team.getVersion() + 1));
+        }
+    }
+
+    @Override
+    public void deletePlayer(UUID playerId, long expectedTeamVersion) {
+        Player player = players.get(playerId);
+        if (player == null) throw conflict("El jugador " + playerId + " ya no existe.");
+        teams.compute(player.getTeamId(), (id, team) -> {
+            if (team == null) throw conflict("El equipo " + id + " ya no existe.");
+            requireVersion(team.getVersion(), expectedTeamVersion, "El equipo " + id);
+            removePlayer(playerId);
+            return team.withVersion(expectedTeamVersion + 1);
+        });
+    }
+
+    @Override
+    public List<UUID> findPlayerIdsByShortId(String shortId, int limit) {
+        return playerShortIds.find(shortId, limit);
     }
 
     @Override
@@ -69,11 +213,235 @@ public class InMemoryTeamRepository implements TeamRepository, PlayerRepository
         return List.copyOf(players.values());
     }
 
+    @Override
+    public Stream<Player> streamAllPlayers() {
+        return players.values().stream();
+    }
+
     @Override
     public List<Player> findPlayersByTeam(UUID teamId) {
-        return players.values().stream()
-                .filter(player -> player.getTeamId().equals(teamId))
-                .toList();
+        Set<UUID> ids = rosters.get(teamId);
+        if (ids == null) return List.of();
+        List<Player> roster = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            Player player = players.get(id);
+            if (player != null) roster.add(player);
+        }
+        return Collections.unmodifiableList(roster);
+    }
+
+    @Override
+    public Map<UUID, List<Player>> findPlayersByTeams(Collection<UUID> teamIds) {
+        Map<UUID, List<Player>> found = new HashMap<>();
+        for (UUID teamId : teamIds) {
+            List<Player> roster = findPlayersByTeam(teamId);
+            if (!roster.isEmpty()) found.put(teamId, roster);
+        }
+        return found;
+    }
+
+    // --- MÉTODOS DE STATS REPOSITORY ---
+    @Override
+    public void applyStats(StatsDelta delta) {
+        delta.getGoalsByPlayer().forEach((playerId, goals) ->
+                players.computeIfPresent(playerId, (id, player) -> {
+                    Player next = player.withGoalsAdded(goals);
+                    tally(player.getTeamId(), 0, next.getGoals() - player.getGoals(), 0);
+                    return next;
+                }));
+        delta.getWinsByTeam().forEach((teamId, wins) ->
+                teams.computeIfPresent(teamId, (id, team) -> team.withMatchesWonAdded(wins)));
+    }
+
+    // --- UTILIDADES ---
+    /** Applies the writes of one team inside its compute and returns what they replaced. */
+    private Deque<Undo> applyAll(ChangeSet changes) {
+        Deque<Undo> applied = new ArrayDeque<>();
+        try {
+            for (ChangeSet.TeamChanges teamChanges : changes.getTeams()) {
+                if (teamChanges.hasWrites()) {
+                    applied.push(apply(teamChanges));
+                }
+            }
+        } catch (DomainException e) {
+            undoAll(applied);
+            throw e;
+        }
+        return applied;
+    }
+
+    private void undoAll(Deque<Undo> applied) {
+        while (!applied.isEmpty()) {
+            undo(applied.pop());
+        }
+    }
+
+    private Undo apply(ChangeSet.TeamChanges changes) {
+        Undo undo = new Undo(changes.getTeamId());
+        Team stored = teams.compute(changes.getTeamId(), (id, current) -> {
+            requireVersion(versionOf(current), changes.getExpectedVersion(), "El equipo " + id);
+            undo.team = current;
+            undo.version = versionOf(current);
+            // A team created and deleted by the same unit arrives here absent, with nothing to do
+            if (changes.isDeleted()) {
+                for (Player player : removeRoster(id)) {
+                    undo.players.put(player.getPlayerId(), player);
+                }
+                return null;
+            }
+            if (current == null && changes.getTeam() == null) throw conflict("El equipo " + id + " ya no existe.");
+            changes.getPlayers().forEach((playerId, player) -> {
+                Player previous = player == null ? removePlayer(playerId) : putPlayer(player);
+                undo.players.putIfAbsent(playerId, previous);
+            });
+            Team next = changes.getTeam() != null ? keepCounters(changes.getTeam(), current) : current;
+            return next.withVersion(changes.getExpectedVersion() + 1);
+        });
+        if ((undo.team == null) != (stored == null)) teamShortIds.invalidate();
+        return undo;
+    }
+
+    private void undo(Undo undo) {
+        boolean[] changed = new boolean[1];
+        teams.compute(undo.teamId, (id, current) -> {
+            undo.players.forEach((playerId, previous) -> {
+                if (previous == null) removePlayer(playerId);
+                else putPlayer(previous);
+            });
+            changed[0] = (undo.team == null) != (current == null);
+            if (undo.team == null) return null;
+            // Past every version handed out meanwhile, so that whoever read the undone state retries
+            return keepCounters(undo.team, current).withVersion(Math.max(versionOf(current), undo.version) + 1);
+        });
+        if (changed[0]) teamShortIds.invalidate();
+    }
+
+    /** Stores a stamped copy of the player, with the stored goals, and indexes it under its team. */
+    private Player putPlayer(Player player) {
+        Player[] previous = new Player[1];
+        players.compute(player.getPlayerId(), (id, current) -> {
+            previous[0] = current;
+            if (current == null || !current.getTeamId().equals(player.getTeamId())) {
+                if (current != null) unindex(current.getTeamId(), id);
+                index(player.getTeamId(), id);
+            }
+            Player stored = current == null ? player : player.withGoals(current.getGoals());
+            if (current != null && current.getTeamId().equals(stored.getTeamId())) {
+                tally(stored.getTeamId(), 0, 0, stored.getBirthYear() - current.getBirthYear());
+            } else {
+                if (current != null) count(current, -1);
+                count(stored, 1);
+            }
+            return stored.withVersion(versionOf(current) + 1);
+        });
+        if (previous[0] == null) playerShortIds.invalidate();
+        return previous[0];
+    }
+
+    private Player removePlayer(UUID playerId) {
+        Player[] removed = new Player[1];
+        players.computeIfPresent(playerId, (id, current) -> {
+            removed[0] = current;
+            unindex(current.getTeamId(), id);
+            count(current, -1);
+            return null;
+        });
+        if (removed[0] != null) playerShortIds.invalidate();
+        return removed[0];
+    }
+
+    /** Removes every player of the team, looking only at its roster. */
+    private List<Player> removeRoster(UUID teamId) {
+        Set<UUID> ids = rosters.get(teamId);
+        if (ids == null) return List.of();
+        List<Player> removed = new ArrayList<>(ids.size());
+        for (UUID id : List.copyOf(ids)) {
+            Player player = removePlayer(id);
+            if (player != null) removed.add(player);
+        }
+        return removed;
+    }
+
+    private void index(UUID teamId, UUID playerId) {
+        rosters.compute(teamId, (id, ids) -> {
+            if (ids == null) ids = ConcurrentHashMap.newKeySet();
+            ids.add(playerId);
+            return ids;
+        });
+    }
+
+    private void unindex(UUID teamId, UUID playerId) {
+        rosters.computeIfPresent(teamId, (id, ids) -> {
+            ids.remove(playerId);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /** Adds the player to ({@code sign} 1) or takes it from ({@code sign} -1) its team's totals. */
+    private void count(Player player, int sign) {
+        tally(player.getTeamId(), sign, (long) sign * player.getGoals(), (long) sign * player.getBirthYear());
+    }
+
+    private void tally(UUID teamId, int players, long goals, long birthYears) {
+        if (players == 0 && goals == 0 && birthYears == 0) return;
+        totals.compute(teamId, (id, current) -> {
+            SquadTotals next = (current == null ? SquadTotals.EMPTY : current).plus(players, goals, birthYears);
+            return next.players == 0 ? null : next;
+        });
+    }
+
+    private TeamSummary summaryOf(Team team) {
+        SquadTotals squad = totals.getOrDefault(team.getTeamId(), SquadTotals.EMPTY);
+        return new TeamSummary(team, squad.players, squad.goals, squad.birthYears);
+    }
+
+    private static Team keepCounters(Team team, Team current) {
+        return current == null ? team : team.withMatchesWon(current.getMatchesWon());
+    }
+
+    private static long versionOf(Team team) { return team == null ? 0 : team.getVersion(); }
+
+    private static long versionOf(Player player) { return player == null ? 0 : player.getVersion(); }
+
+    private static void requireVersion(long actual, long expected, String what) {
+        if (actual != expected) {
+            throw conflict(what + " ha cambiado (versión " + actual + ", se esperaba " + expected + ").");
+        }
+    }
+
+    private static DomainException conflict(String message) {
+        return new DomainException(DomainErrorCode.CONCURRENT_MODIFICATION, message);
+    }
+
+    /** What a commit replaced in one team: the team and every player it wrote, {@code null} if absent. */
+    private static final class Undo {
+        final UUID teamId;
+        Team team;
+        long version;
+        final Map<UUID, Player> players = new LinkedHashMap<>();
+
+        Undo(UUID teamId) {
+            this.teamId = teamId;
+        }
+    }
+
+    /** Totals of one squad; every change swaps in a new instance. */
+    private static final class SquadTotals {
+        static final SquadTotals EMPTY = new SquadTotals(0, 0, 0);
+
+        final int players;
+        final long goals;
+        final long birthYears;
+
+        SquadTotals(int players, long goals, long birthYears) {
+            this.players = players;
+            this.goals = goals;
+            this.birthYears = birthYears;
+        }
+
+        SquadTotals plus(int players, long goals, long birthYears) {
+            return new SquadTotals(this.players + players, this.goals + goals, this.birthYears + birthYears);
+        }
     }
 
 }
@@ -0,0 +1,419 @@
+package repository;
+
+import model.MatchRecord;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Append-only store of every match result. Each result is a fixed-size
+ * record of five longs kept in columns: both team ids as two longs each and
+ * a packed word holding the time the match was played and the score.
+ * Columns are allocated in chunks of {@value #CHUNK_SIZE} records, so the
+ * store grows without ever copying what it already holds.
+ * <p>
+ * Three indexes answer the queries without scanning the columns:
+ * <ul>
+ *   <li>per team, the record numbers of its matches, oldest first;</li>
+ *   <li>per pair of teams, the record numbers of their meetings, in an
+ *       open-addressing table keyed by the pair (a boxed {@code Long} key
+ *       hashes {@code (a << 32) | b} to {@code a ^ b} and collides badly);</li>
+ *   <li>time: records are appended in time order (a time earlier than the
+ *       last record is raised to it), so a time range is found by binary
+ *       search, first over the start time of each chunk and then inside the
+ *       time column of one chunk.</li>
+ * </ul>
+ * The indexes are not persisted; {@link #readFrom(DataInput)} rebuilds them
+ * while loading the columns.
+ */
+public class MatchHistory {
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    // --- COLUMNAS DE UN REGISTRO ---
+    private static final int COLUMNS = 5;
+    private static final int HOME_MSB = 0, HOME_LSB = 1, AWAY_MSB = 2, AWAY_LSB = 3;
+    // playedAt << 16 | home goals << 8 | away goals
+    private static final int META = 4;
+    private static final int SCORE_BITS = 8;
+    private static final int MAX_SCORE = (1 << SCORE_BITS) - 1;
+    private static final long MAX_TIME = (1L << (Long.SIZE - 2 * SCORE_BITS - 1)) - 1;
+
+    // chunks[chunk][column][record & CHUNK_MASK]
+    private long[][][] chunks = new long[16][][];
+    // Time of the first record of each chunk
+    private long[] chunkStarts = new long[16];
+    private int size;
+    private long lastPlayedAt;
+
+    // --- ÍNDICES ---
+    private final Map<UUID, Integer> teamIndex = new HashMap<>();
+    private IntList[] byTeam = new IntList[64];
+    // Pair index: open addressing with linear probing, a null list marks a free slot
+    private long[] pairKeys = new long[1024];
+    private IntList[] pairRecords = new IntList[1024];
+    private int pairCount;
+
+    /**
+     * Appends a result.
+     *
+     * @param homeTeamId the home team
+     * @param awayTeamId the away team
+     * @param homeGoals  goals of the home team (saturates at 255)
+     * @param awayGoals  goals of the away team (saturates at 255)
+     * @param playedAt   epoch milliseconds; raised to the last record's time if earlier
+     */
+    public synchronized void append(UUID homeTeamId, UUID awayTeamId, int homeGoals, int awayGoals, long playedAt) {
+        if (homeTeamId.equals(awayTeamId)) {
+            throw new IllegalArgumentException("Un equipo no puede jugar contra sí mismo.");
+        }
+        int chunk = size >>> CHUNK_SHIFT;
+        if (chunk == chunks.length) {
+            growChunks();
+        }
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new long[COLUMNS][CHUNK_SIZE];
+        }
+        lastPlayedAt = Math.max(lastPlayedAt, Math.min(MAX_TIME, playedAt));
+        long[][] columns = chunks[chunk];
+        int i = size & CHUNK_MASK;
+        if (i == 0) {
+            chunkStarts[chunk] = lastPlayedAt;
+        }
+        columns[HOME_MSB][i] = homeTeamId.getMostSignificantBits();
+        columns[HOME_LSB][i] = homeTeamId.getLeastSignificantBits();
+        columns[AWAY_MSB][i] = awayTeamId.getMostSignificantBits();
+        columns[AWAY_LSB][i] = awayTeamId.getLeastSignificantBits();
+        columns[META][i] = (lastPlayedAt << (2 * SCORE_BITS))
+                | ((long) Math.min(MAX_SCORE, homeGoals) << SCORE_BITS)
+                | Math.min(MAX_SCORE, awayGoals);
+        index(size, homeTeamId, awayTeamId);
+        size++;
+    }
+
+    /** @return number of results stored */
+    public synchronized int size() { return size; }
+
+    /**
+     * @param teamId the team
+     * @param limit  maximum number of results
+     * @return the team's latest matches, newest first
+     */
+    public synchronized List<MatchRecord> recentMatches(UUID teamId, int limit) {
+        Integer team = teamIndex.get(teamId);
+        if (team == null) return List.of();
+        IntList records = byTeam[team];
+        List<MatchRecord> matches = new ArrayList<>(Math.min(limit, records.size));
+        for (int k = records.size - 1; k >= 0 && matches.size() < limit; k--) {
+            matches.add(recordAt(records.items[k]));
+        }
+        return matches;
+    }
+
+    /**
+     * @param teamA one team
+     * @param teamB the other team
+     * @param limit maximum number of meetings listed in the result
+     * @return the record of the meetings between both teams, from {@code teamA}'s side
+     */
+    public synchronized HeadToHead headToHead(UUID teamA, UUID teamB, int limit) {
+        Integer a = teamIndex.get(teamA), b = teamIndex.get(teamB);
+        IntList records = (a == null || b == null) ? null : pairRecords[pairSlot(pairKey(a, b))];
+        if (records == null) {
+            return new HeadToHead(teamA, teamB, 0, 0, 0, 0, 0, List.of());
+        }
+        int winsA = 0, winsB = 0, goalsA = 0, goalsB = 0;
+        long msb = teamA.getMostSignificantBits(), lsb = teamA.getLeastSignificantBits();
+        for (int k = 0; k < records.size; k++) {
+            int record = records.items[k];
+            long[][] columns = chunks[record >>> CHUNK_SHIFT];
+            int i = record & CHUNK_MASK;
+            boolean aHome = columns[HOME_MSB][i] == msb && columns[HOME_LSB][i] == lsb;
+            int home = homeGoals(columns[META][i]), away = awayGoals(columns[META][i]);
+            int forA = aHome ? home : away, forB = aHome ? away : home;
+            goalsA += forA;
+            goalsB += forB;
+            if (forA > forB) winsA++;
+            else if (forB > forA) winsB++;
+        }
+        List<MatchRecord> latest = new ArrayList<>(Math.min(limit, records.size));
+        for (int k = records.size - 1; k >= 0 && latest.size() < limit; k--) {
+            latest.add(recordAt(records.items[k]));
+        }
+        return new HeadToHead(teamA, teamB, records.size, winsA, winsB, goalsA, goalsB, latest);
+    }
+
+    /**
+     * @param fromMillis start of the range, inclusive
+     * @param toMillis   end of the range, exclusive
+     * @return number of matches played in the range
+     */
+    public synchronized int countBetween(long fromMillis, long toMillis) {
+        return Math.max(0, lowerBound(toMillis) - lowerBound(fromMillis));
+    }
+
+    /**
+     * @param fromMillis start of the range, inclusive
+     * @param toMillis   end of the range, exclusive
+     * @param limit      maximum number of results
+     * @return the first matches played in the range, oldest first
+     */
+    public synchronized List<MatchRecord> between(long fromMillis, long toMillis, int limit) {
+        int from = lowerBound(fromMillis), to = Math.min(lowerBound(toMillis), from + Math.max(0, limit));
+        List<MatchRecord> matches = new ArrayList<>(Math.max(0, to - from));
+        for (int record = from; record < to; record++) {
+            matches.add(recordAt(record));
+        }
+        return matches;
+    }
+
+    // --- PERSISTENCIA ---
+
+    /**
+     * Captures the records stored so far. Records are never modified once
+     * appended, so the capture can be written from another thread while new
+     * results keep arriving.
+     *
+     * @return the current contents
+     */
+    public synchronized Capture capture() {
+        return new Capture(Arrays.copyOf(chunks, chunks.length), size);
+    }
+
+    /**
+     * Replaces the contents with records written by {@link Capture#writeTo(DataOutput)}
+     * and rebuilds the indexes.
+     *
+     * @param in the source
+     * @throws IOException if an IO error occurs
+     */
+    public synchronized void readFrom(DataInput in) throws IOException {
+        clear();
+        int count = in.readInt();
+        byte[] buffer = new byte[CHUNK_SIZE * Long.BYTES];
+        for (int chunk = 0; chunk * CHUNK_SIZE < count; chunk++) {
+            int n = Math.min(CHUNK_SIZE, count - chunk * CHUNK_SIZE);
+            if (chunk == chunks.length) {
+                growChunks();
+            }
+            long[][] columns = new long[COLUMNS][CHUNK_SIZE];
+            for (long[] column : columns) {
+                in.readFully(buffer, 0, n * Long.BYTES);
+                ByteBuffer.wrap(buffer, 0, n * Long.BYTES).asLongBuffer().get(column, 0, n);
+            }
+            chunks[chunk] = columns;
+            chunkStarts[chunk] = playedAt(columns[META][0]);
+            for (int i = 0; i < n; i++) {
+                index(size++, new UUID(columns[HOME_MSB][i], columns[HOME_LSB][i]),
+                        new UUID(columns[AWAY_MSB][i], columns[AWAY_LSB][i]));
+            }
+            lastPlayedAt = columns[META][n - 1] >>> (2 * SCORE_BITS);
+        }
+    }
+
+    // --- UTILIDADES ---
+    private void clear() {
+        chunks = new long[16][][];
+        chunkStarts = new long[16];
+        size = 0;
+        lastPlayedAt = 0;
+        teamIndex.clear();
+        byTeam = new IntList[64];
+        pairKeys = new long[1024];
+        pairRecords = new IntList[1024];
+        pairCount = 0;
+    }
+
+    private void growChunks() {
+        chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        chunkStarts = Arrays.copyOf(chunkStarts, chunkStarts.length * 2);
+    }
+
+    private void index(int record, UUID homeTeamId, UUID awayTeamId) {
+        int home = teamOf(homeTeamId), away = teamOf(awayTeamId);
+        byTeam[home].add(record);
+        byTeam[away].add(record);
+        long key = pairKey(home, away);
+        int slot = pairSlot(key);
+        if (pairRecords[slot] == null) {
+            pairKeys[slot] = key;
+            pairRecords[slot] = new IntList();
+            if (++pairCount * 2 > pairKeys.length) {
+                growPairs();
+            }
+            slot = pairSlot(key);
+        }
+        pairRecords[slot].add(record);
+    }
+
+    /** Slot holding the pair, or the free slot where it would go. */
+    private int pairSlot(long key) {
+        int mask = pairKeys.length - 1;
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ (hash >>> 32)) & mask;
+        while (pairRecords[slot] != null && pairKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growPairs() {
+        long[] oldKeys = pairKeys;
+        IntList[] oldRecords = pairRecords;
+        pairKeys = new long[oldKeys.length * 2];
+        pairRecords = new IntList[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldRecords[i] != null) {
+                int slot = pairSlot(oldKeys[i]);
+                pairKeys[slot] = oldKeys[i];
+                pairRecords[slot] = oldRecords[i];
+            }
+        }
+    }
+
+    private int teamOf(UUID teamId) {
+        Integer team = teamIndex.get(teamId);
+        if (team == null) {
+            team = teamIndex.size();
+            teamIndex.put(teamId, team);
+            if (team == byTeam.length) {
+                byTeam = Arrays.copyOf(byTeam, byTeam.length * 2);
+            }
+            byTeam[team] = new IntList();
+        }
+        return team;
+    }
+
+    private static long pairKey(int teamA, int teamB) {
+        return ((long) Math.min(teamA, teamB) << 32) | Math.max(teamA, teamB);
+    }
+
+    /** First record played at or after the given time. */
+    private int lowerBound(long millis) {
+        // Last chunk starting before the time: the answer is inside it or right after it
+        int low = 0, high = (size + CHUNK_SIZE - 1) >>> CHUNK_SHIFT;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (chunkStarts[mid] < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == 0) return 0;
+        int chunk = low - 1;
+        long[] times = chunks[chunk][META];
+        int first = 0, last = Math.min(CHUNK_SIZE, size - (chunk << CHUNK_SHIFT));
+        while (first < last) {
+            int mid = (first + last) >>> 1;
+            if (playedAt(times[mid]) < millis) {
+                first = mid + 1;
+            } else {
+                last = mid;
+            }
+        }
+        return (chunk << CHUNK_SHIFT) + first;
+    }
+
+    private MatchRecord recordAt(int record) {
+        long[][] columns = chunks[record >>> CHUNK_SHIFT];
+        int i = record & CHUNK_MASK;
+        long meta = columns[META][i];
+        return new MatchRecord(new UUID(columns[HOME_MSB][i], columns[HOME_LSB][i]),
+                new UUID(columns[AWAY_MSB][i], columns[AWAY_LSB][i]),
+                homeGoals(meta), awayGoals(meta), playedAt(meta));
+    }
+
+    private static long playedAt(long meta) { return meta >>> (2 * SCORE_BITS); }
+    private static int homeGoals(long meta) { return (int) (meta >>> SCORE_BITS) & MAX_SCORE; }
+    private static int awayGoals(long meta) { return (int) meta & MAX_SCORE; }
+
+    /** Growable list of record numbers. */
+    private static final class IntList {
+        private int[] items = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+    }
+
+    /**
+     * Immutable view of the first {@link #size()} records, written to disk
+     * column by column, one chunk at a time.
+     */
+    public static final class Capture {
+        private final long[][][] chunks;
+        private final int size;
+
+        private Capture(long[][][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        public int size() { return size; }
+
+        /**
+         * @param out the destination
+         * @throws IOException if an IO error occurs
+         */
+        public void writeTo(DataOutput out) throws IOException {
+            out.writeInt(size);
+            byte[] buffer = new byte[CHUNK_SIZE * Long.BYTES];
+            LongBuffer longs = ByteBuffer.wrap(buffer).asLongBuffer();
+            for (int chunk = 0; chunk * CHUNK_SIZE < size; chunk++) {
+                int n = Math.min(CHUNK_SIZE, size - chunk * CHUNK_SIZE);
+                for (long[] column : chunks[chunk]) {
+                    longs.clear();
+                    longs.put(column, 0, n);
+                    out.write(buffer, 0, n * Long.BYTES);
+                }
+            }
+        }
+    }
+
+    /**
+     * Record of the meetings between two teams, seen from the first team.
+     */
+    public static final class HeadToHead {
+        private final UUID teamId, opponentId;
+        private final int played, won, lost, goalsFor, goalsAgainst;
+        private final List<MatchRecord> latest;
+
+        private HeadToHead(UUID teamId, UUID opponentId, int played, int won, int lost,
+                           int goalsFor, int goalsAgainst, List<MatchRecord> latest) {
+            this.teamId = teamId;
+            this.opponentId = opponentId;
+            this.played = played;
+            this.won = won;
+            this.lost = lost;
+            this.goalsFor = goalsFor;
+            this.goalsAgainst = goalsAgainst;
+            this.latest = List.copyOf(latest);
+        }
+
+        public UUID getTeamId() { return this.teamId; }
+        public UUID getOpponentId() { return this.opponentId; }
+        public int getPlayed() { return this.played; }
+        public int getWon() { return this.won; }
+        public int getDrawn() { return this.played - this.won - this.lost; }
+        public int getLost() { return this.lost; }
+        public int getGoalsFor() { return this.goalsFor; }
+        public int getGoalsAgainst() { return this.goalsAgainst; }
+        /** @return the latest meetings, newest first */
+        public List<MatchRecord> getLatest() { return this.latest; }
+    }
+}
@@ -2,9 +2,12 @@ package repository;
 
 import model.Player;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing teams and their players. Implementations
@@ -21,6 +24,19 @@ public interface PlayerRepository {
     void savePlayer(Player player);
     void savePlayers(List<Player> playersList);
 
+    /**
+     * Adds or replaces players of one team as a change to that team's roster:
+     * only if the team still exists at the given version. The team's version
+     * is then incremented once, so that rules checked against the roster,
+     * such as unique squad numbers, still hold when the write lands.
+     *
+     * @param teamId              the team the players belong to
+     * @param roster              players of that team to save
+     * @param expectedTeamVersion version of the team read before the change
+     * @throws domain.DomainException with {@code CONCURRENT_MODIFICATION} if the team changed or is gone
+     */
+    void savePlayers(UUID teamId, List<Player> roster, long expectedTeamVersion);
+
     /**
      * Retrieves a player by its identifier.
      *
@@ -29,6 +45,15 @@ public interface PlayerRepository {
      */
     Optional<Player> findPlayer(UUID playerId);
 
+    /**
+     * Finds the players whose id starts or ends with the given characters.
+     *
+     * @param shortId the start or the end of an id, see {@link util.ShortIdIndex#isShortId(String)}
+     * @param limit   maximum number of ids returned
+     * @return matching ids, empty if none or the text is not a short id
+     */
+    List<UUID> findPlayerIdsByShortId(String shortId, int limit);
+
     /**
      * Removes the player with playerId from the specified team. If either
      * identifier does not exist the operation is silently ignored.
@@ -36,8 +61,28 @@ public interface PlayerRepository {
      * @param playerId the player identifier
      */
     void deletePlayer(UUID playerId);
+
+    /**
+     * Removes a player as a change to its team's roster: only if the player
+     * is still stored and its team is at the given version, which is then
+     * incremented.
+     *
+     * @param playerId            the player identifier
+     * @param expectedTeamVersion version of the player's team read before the change
+     * @throws domain.DomainException with {@code CONCURRENT_MODIFICATION} if the player or the team changed
+     */
+    void deletePlayer(UUID playerId, long expectedTeamVersion);
     List<Player> findAllPlayers();
 
+    /**
+     * Streams all players without copying them, for scans over large data.
+     * The stream is weakly consistent: it may or may not see writes made
+     * while it is consumed.
+     *
+     * @return stream of the stored players
+     */
+    Stream<Player> streamAllPlayers();
+
     /**
      * Returns a list of all players belonging to the specified team.
      *
@@ -46,4 +91,13 @@ public interface PlayerRepository {
      */
     List<Player> findPlayersByTeam(UUID teamId);
 
+    /**
+     * Returns the rosters of several teams at once, for bulk operations that
+     * would otherwise look up every team separately.
+     *
+     * @param teamIds the team identifiers
+     * @return players by team; teams without players are absent
+     */
+    Map<UUID, List<Player>> findPlayersByTeams(Collection<UUID> teamIds);
+
 }
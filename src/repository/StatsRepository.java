@@ -0,0 +1,34 @@
+package repository;
+
+import model.StatsDelta;
+
+/**
+ * Repository operation for match statistics. Separate from saving whole
+ * entities so that a persistent or remote implementation can apply all the
+ * goals and wins of a match, or of a whole matchday, in one round-trip.
+ */
+public interface StatsRepository {
+
+    /**
+     * Adds the goals and wins of the delta to the stored players and teams.
+     * Goals saturate at {@link model.Player#GOALS_MAX}; unknown players or
+     * teams are ignored.
+     *
+     * @param delta the changes to apply
+     */
+    void applyStats(StatsDelta delta);
+
+    /**
+     * Applies the delta and then runs {@code announce}, which publishes the
+     * events recording it. Implementations that capture the stored state can
+     * make the pair atomic, so that no capture holds the goals and wins
+     * without the events that announce them.
+     *
+     * @param delta    the changes to apply
+     * @param announce publishes the events of the delta
+     */
+    default void applyStats(StatsDelta delta, Runnable announce) {
+        applyStats(delta);
+        announce.run();
+    }
+}
@@ -1,17 +1,19 @@
 package repository;
 
 import model.Team;
+import model.TeamSummary;
 
 import java.util.UUID;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing teams and their players. Implementations
  * of this interface abstract away the underlying storage mechanism (memory,
  * database, etc.).
  */
-public interface TeamRepository {
+public interface TeamRepository extends ChangeSetRepository {
 
     /**
      * Persists the given team in the repository. If a team with the same ID
@@ -23,6 +25,16 @@ public interface TeamRepository {
     void saveTeam(Team team);
     void saveTeams(List<Team> teamList);
 
+    /**
+     * Stores the team only if the stored one is still at the given version,
+     * then increments its version.
+     *
+     * @param team            the team to save
+     * @param expectedVersion version read before the change; {@code 0} if the team must not exist yet
+     * @throws domain.DomainException with {@code CONCURRENT_MODIFICATION} if the version does not match
+     */
+    void saveTeam(Team team, long expectedVersion);
+
     /**
      * Retrieves a team by its identifier.
      *
@@ -32,12 +44,32 @@ public interface TeamRepository {
     Optional<Team> findTeam(UUID teamId);
 
     /**
-     * Removes the team with the given identifier from the repository.
+     * Finds the teams whose id starts or ends with the given characters.
+     *
+     * @param shortId the start or the end of an id, see {@link util.ShortIdIndex#isShortId(String)}
+     * @param limit   maximum number of ids returned
+     * @return matching ids, empty if none or the text is not a short id
+     */
+    List<UUID> findTeamIdsByShortId(String shortId, int limit);
+
+    /**
+     * Removes the team with the given identifier from the repository,
+     * together with all its players.
      *
      * @param teamId the team's unique identifier
      */
     void deleteTeam(UUID teamId);
 
+    /**
+     * Removes the team and its players only if the team is still at the
+     * given version.
+     *
+     * @param teamId          the team's unique identifier
+     * @param expectedVersion version read before the change
+     * @throws domain.DomainException with {@code CONCURRENT_MODIFICATION} if the team changed or is gone
+     */
+    void deleteTeam(UUID teamId, long expectedVersion);
+
     /**
      * Returns a collection of all teams in the repository.
      *
@@ -45,4 +77,29 @@ public interface TeamRepository {
      */
     List<Team> findAllTeams();
 
+    /**
+     * Returns the summary of a team from totals kept up to date by every
+     * write, without reading its players.
+     *
+     * @param teamId the team's unique identifier
+     * @return the summary, or empty if the team does not exist
+     */
+    Optional<TeamSummary> findTeamSummary(UUID teamId);
+
+    /**
+     * Returns the summary of every team, at the cost of one lookup per team.
+     *
+     * @return one summary per team
+     */
+    List<TeamSummary> findAllTeamSummaries();
+
+    /**
+     * Streams all teams without copying them, for scans over large data. The
+     * stream is weakly consistent: it may or may not see writes made while
+     * it is consumed.
+     *
+     * @return stream of the stored teams
+     */
+    Stream<Team> streamAllTeams();
+
 }
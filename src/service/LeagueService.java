@@ -0,0 +1,106 @@
+package service;
+
+import model.MatchRecord;
+import repository.MatchHistory;
+import simulation.EloRatings;
+import simulation.SeasonForecast;
+import simulation.Standings;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface LeagueService {
+
+    /**
+     * Plays a full round-robin league between all registered teams. Fixtures
+     * of the same matchday are simulated in parallel; the results of each
+     * matchday are then applied to the players and teams and announced in a
+     * single batch of {@link events.MatchSimulatedEvent}s.
+     *
+     * @param doubleRoundRobin true to play home and away legs
+     * @return the final standings
+     * @throws domain.DomainException if there are fewer than two teams
+     */
+    Standings simulateLeague(boolean doubleRoundRobin);
+
+    /**
+     * Plays the league with the given season seed. Each fixture draws from
+     * its own stream derived from the season seed and the fixture's position,
+     * so with the same teams and rosters the season is identical regardless
+     * of how many threads simulate it. Odds scaled by the Elo ratings or by
+     * the players' form break this, since both move with every match.
+     *
+     * @param doubleRoundRobin true to play home and away legs
+     * @param seasonSeed       the seed of the season
+     * @return the final standings
+     * @throws domain.DomainException if there are fewer than two teams
+     */
+    Standings simulateLeague(boolean doubleRoundRobin, long seasonSeed);
+
+    /**
+     * Forecasts the finishing position of every team by simulating the
+     * league many times on a copy of the current rosters. Nothing is written
+     * to the repositories and no event is published.
+     *
+     * @param seasons          number of seasons to simulate
+     * @param doubleRoundRobin true to play home and away legs
+     * @param seed             the seed of the forecast
+     * @return finishing-position frequencies per team
+     * @throws domain.DomainException if there are fewer than two teams or seasons is not positive
+     */
+    SeasonForecast forecastSeason(int seasons, boolean doubleRoundRobin, long seed);
+
+    /**
+     * @param teamId the team
+     * @param limit  maximum number of matches
+     * @return the team's latest matches, friendlies and league, newest first
+     * @throws domain.DomainException if the team does not exist or the limit is not positive
+     */
+    List<MatchRecord> recentMatches(UUID teamId, int limit);
+
+    /**
+     * @param teamId     the team
+     * @param opponentId the opponent
+     * @param limit      maximum number of meetings listed
+     * @return every meeting between both teams, summarised from {@code teamId}'s side
+     * @throws domain.DomainException if a team does not exist, both are the same or the limit is not positive
+     */
+    MatchHistory.HeadToHead headToHead(UUID teamId, UUID opponentId, int limit);
+
+    /**
+     * @param fromMillis start of the range (epoch milliseconds), inclusive
+     * @param toMillis   end of the range, exclusive
+     * @return number of matches played in the range
+     */
+    int countMatchesBetween(long fromMillis, long toMillis);
+
+    /**
+     * @param fromMillis start of the range (epoch milliseconds), inclusive
+     * @param toMillis   end of the range, exclusive
+     * @param limit      maximum number of matches
+     * @return the first matches played in the range, oldest first
+     * @throws domain.DomainException if the limit is not positive
+     */
+    List<MatchRecord> matchesBetween(long fromMillis, long toMillis, int limit);
+
+    /**
+     * @param limit maximum number of teams
+     * @return the best teams by Elo rating, best first
+     * @throws domain.DomainException if the limit is not positive
+     */
+    List<EloRatings.Entry> ratingTable(int limit);
+
+    /**
+     * @param teamId the team
+     * @return the team's 1-based position in the Elo ranking
+     * @throws domain.DomainException if the team does not exist
+     */
+    int ratingRankOf(UUID teamId);
+
+    /**
+     * @param teamId the team
+     * @return the team's Elo rating
+     * @throws domain.DomainException if the team does not exist
+     */
+    double ratingOf(UUID teamId);
+}
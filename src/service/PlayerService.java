@@ -1,10 +1,14 @@
 package service;
 
 import model.Player;
+import query.Page;
+import query.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Function;
 
 public interface PlayerService {
 
@@ -17,6 +21,26 @@ public interface PlayerService {
      */
     void addPlayer(Player player);
 
+    /**
+     * Stages the addition of a player in a unit of work, see
+     * {@link TransactionService}. Squad numbers staged earlier in the same
+     * unit count as taken.
+     */
+    void addPlayer(Player player, UnitOfWork unit);
+
+    /**
+     * Adds a batch of players, possibly to several teams. The whole batch is
+     * validated first, grouped by team, and every problem is reported at
+     * once; if there is any, no player is added. Publishes a single
+     * {@link events.RosterImportedEvent}, logged together with the players:
+     * if it cannot be logged, no player is added either.
+     *
+     * @param players players to add
+     * @throws domain.DomainException with {@code VALIDATION_ERROR} and one detail per problem
+     *                                (unknown team, repeated player, taken squad number)
+     */
+    void addPlayers(Collection<Player> players);
+
     /**
      * Removes a player from a team.
      *
@@ -26,6 +50,9 @@ public interface PlayerService {
      */
     void deletePlayer(UUID playerId);
 
+    /** Stages the removal of a player in a unit of work, see {@link TransactionService}. */
+    void deletePlayer(UUID playerId, UnitOfWork unit);
+
     /**
      * Removes a player from a team.
      *
@@ -35,6 +62,9 @@ public interface PlayerService {
      */
     void deletePlayersByTeam(UUID teamId);
 
+    /** Stages the removal of all the players of a team in a unit of work, see {@link TransactionService}. */
+    void deletePlayersByTeam(UUID teamId, UnitOfWork unit);
+
     /**
      * Finds a player by their identifier across all teams.
      *
@@ -44,6 +74,18 @@ public interface PlayerService {
      */
     Optional<Player> findPlayer(UUID playerId);
 
+    /**
+     * Reads a player id typed by a user: the full id, or a short id (its first
+     * six or more hex digits, or its last six to twelve) that must belong to
+     * exactly one player.
+     *
+     * @param idOrShortId full id or short id
+     * @return the id (a full id is not checked), or {@code null} if the text is neither
+     * @throws domain.DomainException with {@code PLAYER_NOT_FOUND} if no player has the
+     *         short id, or {@code VALIDATION_ERROR} if several do
+     */
+    UUID resolvePlayerId(String idOrShortId);
+
     /**
      * Finds a List of players by their team identifier.
      *
@@ -52,4 +94,15 @@ public interface PlayerService {
      * @throws domain.DomainException if player not found
      */
     List<Player> findPlayersByTeam(UUID teamId);
+
+    /**
+     * Runs a query over all players. An equality on the player id or the team
+     * id uses the matching lookup; any other query scans all players in
+     * parallel, keeping only the requested window in memory.
+     *
+     * @param query      conditions, order and window, built from {@link query.PlayerFields}
+     * @param projection applied to the returned players only
+     * @return the requested page
+     */
+    <R> Page<R> queryPlayers(Query<Player> query, Function<? super Player, ? extends R> projection);
 }
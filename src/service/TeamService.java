@@ -1,11 +1,17 @@
 package service;
 
 import model.Team;
+import model.TeamSummary;
+import query.Page;
+import query.Query;
+import simulation.MatchResult;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 public interface TeamService {
 
@@ -21,12 +27,41 @@ public interface TeamService {
     Team createTeam(String name, String city, String coach, String formation);
 
     /**
-     * Removes the team with the given identifier.
+     * Stages the creation of a team in a unit of work, see {@link TransactionService}.
+     *
+     * @return the team, stored when the unit commits
+     */
+    Team createTeam(String name, String city, String coach, String formation, UnitOfWork unit);
+
+    /**
+     * Creates a batch of teams. The whole batch is validated first and every
+     * problem is reported at once; if there is any, no team is created.
+     * Publishes a single {@link events.RosterImportedEvent}, logged together
+     * with the teams: if it cannot be logged, no team is created either.
+     *
+     * @param teams teams to create
+     * @throws domain.DomainException with {@code VALIDATION_ERROR} and one detail per problem
+     */
+    void createTeams(Collection<Team> teams);
+
+    /**
+     * Removes the team with the given identifier together with its players,
+     * in one step, and publishes a single {@link events.TeamDeletedEvent}
+     * carrying the ids of the players removed.
      *
      * @param teamId team identifier
      */
     void deleteTeam(UUID teamId);
 
+    /**
+     * Stages the deletion of a team, and of its players with it, in a unit of
+     * work, see {@link TransactionService}.
+     *
+     * @param teamId team identifier
+     * @throws domain.DomainException if not found
+     */
+    void deleteTeam(UUID teamId, UnitOfWork unit);
+
     /**
      * Finds a team by its identifier.
      *
@@ -36,6 +71,18 @@ public interface TeamService {
      */
     Optional<Team> findTeam(UUID teamId);
 
+    /**
+     * Reads a team id typed by a user: the full id, or a short id (its first
+     * six or more hex digits, or its last six to twelve) that must belong to
+     * exactly one team.
+     *
+     * @param idOrShortId full id or short id
+     * @return the id (a full id is not checked), or {@code null} if the text is neither
+     * @throws domain.DomainException with {@code TEAM_NOT_FOUND} if no team has the short
+     *         id, or {@code VALIDATION_ERROR} if several do
+     */
+    UUID resolveTeamId(String idOrShortId);
+
     /**
      * Returns a list of all teams.
      *
@@ -43,6 +90,33 @@ public interface TeamService {
      */
     List<Team> findAllTeams();
 
+    /**
+     * Returns a team's player count, goals, average age and wins without
+     * reading its players.
+     *
+     * @param teamId identifier of the team
+     * @return the summary, or empty if the team does not exist
+     */
+    Optional<TeamSummary> findTeamSummary(UUID teamId);
+
+    /**
+     * Returns the summary of every team.
+     *
+     * @return list of summaries
+     */
+    List<TeamSummary> findAllTeamSummaries();
+
+    /**
+     * Runs a query over all teams. An equality on the team id uses the
+     * lookup by id; any other query scans all teams in parallel, keeping only
+     * the requested window in memory.
+     *
+     * @param query      conditions, order and window, built from {@link query.TeamFields}
+     * @param projection applied to the returned teams only
+     * @return the requested page
+     */
+    <R> Page<R> queryTeams(Query<Team> query, Function<? super Team, ? extends R> projection);
+
     /**
      * Simulates a match between two teams. Updates the number of matches won
      * depending on the outcome determined by the simulator.
@@ -52,4 +126,47 @@ public interface TeamService {
      * @throws domain.DomainException if any team is not found
      */
     Optional<Team> simulateMatch(UUID teamIdA, UUID teamIdB);
+
+    /**
+     * Simulates a match with the given seed. With the same seed and the same
+     * rosters the match produces exactly the same scorers, so a past match
+     * can be played again from the seed recorded in its event. This holds
+     * only while the odds depend on the rosters alone: if the profile cache
+     * scales them by the Elo ratings or the players' form, neither of which
+     * the event records, the same seed gives a different match once they
+     * have moved.
+     *
+     * @param teamIdA id of the first team
+     * @param teamIdB id of the second team
+     * @param seed    the seed of the match
+     * @throws domain.DomainException if any team is not found
+     */
+    Optional<Team> simulateMatch(UUID teamIdA, UUID teamIdB, long seed);
+
+    /**
+     * Queues a match to be simulated in the background and returns at once.
+     * Matches that share a team are played one after the other, in the order
+     * they were submitted; the others run in parallel up to the scheduler's
+     * concurrency limit. The result is applied and announced exactly as in
+     * {@link #simulateMatch(UUID, UUID, long)}.
+     *
+     * @param teamIdA id of the home team
+     * @param teamIdB id of the away team
+     * @return completed with the result once the match has been played;
+     *         cancelling it before the match starts skips the match
+     * @throws domain.DomainException if both ids are the same team, or with
+     *         {@link domain.DomainErrorCode#QUEUE_FULL} if too many matches are pending
+     */
+    CompletableFuture<MatchResult> submitMatch(UUID teamIdA, UUID teamIdB);
+
+    /**
+     * Queues a match with the given seed, see {@link #submitMatch(UUID, UUID)}.
+     *
+     * @param teamIdA id of the home team
+     * @param teamIdB id of the away team
+     * @param seed    the seed of the match
+     * @return completed with the result once the match has been played
+     * @throws domain.DomainException if both ids are the same team or too many matches are pending
+     */
+    CompletableFuture<MatchResult> submitMatch(UUID teamIdA, UUID teamIdB, long seed);
 }
@@ -0,0 +1,28 @@
+package service;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public interface TransactionService {
+
+    /**
+     * Runs several service operations as one {@link UnitOfWork}: their writes
+     * are applied together and their events published as one batch, or
+     * nothing happens at all. If the commit finds that another thread changed
+     * a team in between, the whole work runs again on a new unit, so it must
+     * not have effects outside the unit.
+     *
+     * @param work the operations, each given the unit (e.g. {@code teamService.deleteTeam(id, unit)})
+     * @throws domain.DomainException from any operation, or with {@code CONCURRENT_MODIFICATION}
+     *                                if the retries are exhausted
+     */
+    void run(Consumer<UnitOfWork> work);
+
+    /**
+     * Same as {@link #run(Consumer)} for work that returns a value.
+     *
+     * @param work the operations, each given the unit
+     * @return what the work returned on the attempt that committed
+     */
+    <T> T call(Function<UnitOfWork, T> work);
+}
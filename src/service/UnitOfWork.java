@@ -0,0 +1,160 @@
+package service;
+
+import events.DomainEvent;
+import events.bus.EventBus;
+import model.Player;
+import model.Team;
+import repository.ChangeSet;
+import repository.ChangeSetRepository;
+import repository.PlayerRepository;
+import repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Collects the repository writes and the events of one or more service
+ * operations so that they take effect together, in {@link #commit()}.
+ * <ul>
+ *   <li><b>Reads</b> go to the repository but see the unit's own staged
+ *       writes. The first read of a team records its version; the team's
+ *       roster is always read after it.</li>
+ *   <li><b>Writes</b> are only staged, in a {@link ChangeSet}. If an
+ *       operation fails halfway, nothing has been written.</li>
+ *   <li><b>Commit</b> applies every staged write at once, only if the teams
+ *       written are still at the versions read, and then publishes all the
+ *       events in one {@link EventBus#publishAll} call: each listener is
+ *       called once, so persistence is triggered once. Both steps go
+ *       through {@link ChangeSetRepository#commit(ChangeSet, Runnable)}, so
+ *       a store that logs the events keeps them in the order the writes
+ *       were applied, and a failed log append undoes the writes.</li>
+ * </ul>
+ * A unit is used by one thread and committed at most once; see
+ * {@link TransactionService} to run and retry one.
+ */
+public final class UnitOfWork {
+    private final TeamRepository teamRepository;
+    private final PlayerRepository playerRepository;
+    private final ChangeSetRepository changeSetRepository;
+    private final EventBus eventBus;
+    private final ChangeSet changes = new ChangeSet();
+    private final List<DomainEvent> events = new ArrayList<>();
+    private boolean finished;
+
+    public UnitOfWork(TeamRepository teamRepository, PlayerRepository playerRepository, EventBus eventBus) {
+        this(teamRepository, playerRepository, teamRepository, eventBus);
+    }
+
+    /**
+     * @param teamRepository      source of the reads
+     * @param playerRepository    source of the reads
+     * @param changeSetRepository applies the writes and announces them on commit
+     * @param eventBus            receives the events on commit
+     */
+    public UnitOfWork(TeamRepository teamRepository, PlayerRepository playerRepository,
+                      ChangeSetRepository changeSetRepository, EventBus eventBus) {
+        this.teamRepository = teamRepository;
+        this.playerRepository = playerRepository;
+        this.changeSetRepository = changeSetRepository;
+        this.eventBus = eventBus;
+    }
+
+    // -------- LECTURAS --------
+    public Optional<Team> findTeam(UUID teamId) {
+        requireOpen();
+        ChangeSet.TeamChanges staged = changes.getTeam(teamId);
+        if (staged != null && staged.isDeleted()) return Optional.empty();
+        if (staged != null && staged.getTeam() != null) return Optional.of(staged.getTeam());
+        Optional<Team> team = teamRepository.findTeam(teamId);
+        changes.expect(teamId, team.map(Team::getVersion).orElse(0L));
+        return team;
+    }
+
+    public List<Player> findPlayersByTeam(UUID teamId) {
+        // The version is read first: the commit fails if the roster changed after this point
+        if (findTeam(teamId).isEmpty()) return List.of();
+        ChangeSet.TeamChanges staged = changes.getTeam(teamId);
+        List<Player> roster = new ArrayList<>();
+        for (Player player : playerRepository.findPlayersByTeam(teamId)) {
+            if (!staged.getPlayers().containsKey(player.getPlayerId())) roster.add(player);
+        }
+        for (Player player : staged.getPlayers().values()) {
+            if (player != null) roster.add(player);
+        }
+        return roster;
+    }
+
+    public Optional<Player> findPlayer(UUID playerId) {
+        requireOpen();
+        for (ChangeSet.TeamChanges staged : changes.getTeams()) {
+            if (staged.getPlayers().containsKey(playerId)) return Optional.ofNullable(staged.getPlayers().get(playerId));
+        }
+        Optional<Player> player = playerRepository.findPlayer(playerId);
+        if (player.isPresent() && findTeam(player.get().getTeamId()).isEmpty()) {
+            return Optional.empty(); // its team is deleted by this unit
+        }
+        return player;
+    }
+
+    // -------- ESCRITURAS --------
+    public void saveTeam(Team team) {
+        touch(team.getTeamId());
+        changes.saveTeam(team);
+    }
+
+    /** Stages the deletion of the team together with all its players. */
+    public void deleteTeam(UUID teamId) {
+        touch(teamId);
+        changes.deleteTeam(teamId);
+    }
+
+    public void savePlayer(Player player) {
+        touch(player.getTeamId());
+        changes.savePlayer(player);
+    }
+
+    public void deletePlayer(Player player) {
+        touch(player.getTeamId());
+        changes.deletePlayer(player.getTeamId(), player.getPlayerId());
+    }
+
+    /** Queues an event, published only if the unit commits. */
+    public void publish(DomainEvent event) {
+        requireOpen();
+        events.add(event);
+    }
+
+    /**
+     * Applies the staged writes and publishes the queued events.
+     *
+     * @throws domain.DomainException with {@code CONCURRENT_MODIFICATION} if a team written changed
+     *                                since it was read, or with {@code PERSISTENCE_ERROR} if the
+     *                                events cannot be logged; nothing is applied or published then
+     */
+    public void commit() {
+        requireOpen();
+        finished = true;
+        if (changes.isEmpty() && events.isEmpty()) return;
+        changeSetRepository.commit(changes, () -> {
+            if (!events.isEmpty()) {
+                eventBus.publishAll(events);
+            }
+        });
+    }
+
+    // --- UTILIDADES ---
+    private void touch(UUID teamId) {
+        requireOpen();
+        if (!changes.touches(teamId)) {
+            findTeam(teamId);
+        }
+    }
+
+    private void requireOpen() {
+        if (finished) {
+            throw new IllegalStateException("La unidad de trabajo ya se ha confirmado.");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package service.impl;
+
+import domain.DomainErrorCode;
+import domain.DomainException;
+import util.IdUtils;
+import util.ShortIdIndex;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Turns what an operator typed into an id: either a full id or a short id
+ * (see {@link ShortIdIndex#isShortId(String)}), which must match exactly one
+ * stored id.
+ */
+final class IdResolver {
+
+    private IdResolver() {
+        // utility class - prevent instantiation
+    }
+
+    /**
+     * @param text      a full id or a short id
+     * @param byShortId finds up to {@code limit} stored ids matching a short id
+     * @param notFound  error code when no id matches the short id
+     * @param what      name of the entity for the messages, e.g. "equipo"
+     * @return the id; a full id is returned as is, without checking that it exists.
+     *         {@code null} if the text is neither a full id nor a short id
+     * @throws DomainException with {@code notFound} if no id matches, or
+     *         {@code VALIDATION_ERROR} if several do
+     */
+    static UUID resolve(String text, BiFunction<String, Integer, List<UUID>> byShortId, DomainErrorCode notFound, String what) {
+        UUID id = IdUtils.parse(text);
+        if (id != null || text == null) return id;
+        String shortId = text.trim();
+        if (!ShortIdIndex.isShortId(shortId)) return null;
+        List<UUID> found = byShortId.apply(shortId, 2);
+        if (found.isEmpty()) {
+            throw new DomainException(notFound, "Ningún " + what + " tiene un ID que empiece o acabe por " + shortId + ".");
+        }
+        if (found.size() > 1) {
+            throw new DomainException(DomainErrorCode.VALIDATION_ERROR,
+                    "Varios " + what + "s tienen un ID que empieza o acaba por " + shortId + "; escriba más caracteres.");
+        }
+        return found.get(0);
+    }
+}
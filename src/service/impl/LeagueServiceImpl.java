@@ -0,0 +1,227 @@
+package service.impl;
+
+import domain.DomainErrorCode;
+import domain.DomainException;
+import events.DomainEvent;
+import events.MatchSimulatedEvent;
+import events.bus.EventBus;
+import model.MatchRecord;
+import model.StatsDelta;
+import model.Team;
+import repository.MatchHistory;
+import repository.StatsRepository;
+import repository.TeamRepository;
+import service.LeagueService;
+import simulation.EloRatings;
+import simulation.Fixture;
+import simulation.MatchResult;
+import simulation.MatchSimulator;
+import simulation.RoundRobinScheduler;
+import simulation.SeasonForecast;
+import simulation.SeasonForecaster;
+import simulation.Seeds;
+import simulation.Standings;
+import simulation.TeamProfile;
+import simulation.TeamProfileCache;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class LeagueServiceImpl implements LeagueService {
+    // Below this many fixtures a matchday slice is simulated by a single task
+    private static final int FIXTURES_PER_TASK = 32;
+
+    private final StatsRepository statsRepository;
+    private final TeamRepository teamRepository;
+    private final EventBus eventBus;
+    private final TeamProfileCache profileCache;
+    private final MatchHistory history;
+    private final EloRatings ratings;
+    private final ForkJoinPool pool;
+
+    public LeagueServiceImpl(StatsRepository statsRepository, TeamRepository teamRepository, EventBus eventBus,
+                             TeamProfileCache profileCache, MatchHistory history, EloRatings ratings) {
+        this(statsRepository, teamRepository, eventBus, profileCache, history, ratings, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism number of worker threads used to simulate a matchday
+     */
+    public LeagueServiceImpl(StatsRepository statsRepository, TeamRepository teamRepository, EventBus eventBus,
+                             TeamProfileCache profileCache, MatchHistory history, EloRatings ratings,
+                             int parallelism) {
+        this.statsRepository = statsRepository;
+        this.teamRepository = teamRepository;
+        this.eventBus = eventBus;
+        this.profileCache = profileCache;
+        this.history = history;
+        this.ratings = ratings;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public Standings simulateLeague(boolean doubleRoundRobin) {
+        return simulateLeague(doubleRoundRobin, Seeds.newSeed());
+    }
+
+    @Override
+    public Standings simulateLeague(boolean doubleRoundRobin, long seasonSeed) {
+        List<Team> teams = teamRepository.findAllTeams();
+        if (teams.size() < 2) {
+            throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "Se necesitan al menos dos equipos para simular una liga.");
+        }
+        // Teams in canonical order (by id): the seed alone decides the season
+        Map<UUID, String> names = new TreeMap<>();
+        for (Team team : teams) {
+            names.put(team.getTeamId(), team.getName());
+        }
+        // Profiles are captured once: the parallel phase never reads the repository
+        Map<UUID, TeamProfile> profiles = new HashMap<>();
+        for (UUID teamId : names.keySet()) {
+            profiles.put(teamId, profileCache.profileOf(teamId));
+        }
+
+        Standings standings = new Standings(names, seasonSeed);
+        for (List<Fixture> matchday : RoundRobinScheduler.schedule(new ArrayList<>(names.keySet()), doubleRoundRobin)) {
+            MatchResult[] results = new MatchResult[matchday.size()];
+            pool.invoke(new MatchdayTask(matchday, profiles, seasonSeed, results, 0, results.length));
+            applyMatchday(results, standings);
+        }
+        return standings;
+    }
+
+    @Override
+    public SeasonForecast forecastSeason(int seasons, boolean doubleRoundRobin, long seed) {
+        if (seasons < 1) {
+            throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "El número de temporadas debe ser positivo.");
+        }
+        List<Team> teams = new ArrayList<>(teamRepository.findAllTeams());
+        if (teams.size() < 2) {
+            throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "Se necesitan al menos dos equipos para pronosticar una liga.");
+        }
+        // Before building any profile
+        SeasonForecaster.requireSupportedSize(teams.size());
+        teams.sort(Comparator.comparing(Team::getTeamId));
+        List<TeamProfile> profiles = new ArrayList<>(teams.size());
+        List<String> names = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            profiles.add(profileCache.profileOf(team.getTeamId()));
+            names.add(team.getName());
+        }
+        return new SeasonForecaster(profiles, names, doubleRoundRobin).run(seasons, seed, pool);
+    }
+
+    @Override
+    public List<MatchRecord> recentMatches(UUID teamId, int limit) {
+        requireTeam(teamId);
+        requirePositiveLimit(limit);
+        return history.recentMatches(teamId, limit);
+    }
+
+    @Override
+    public MatchHistory.HeadToHead headToHead(UUID teamId, UUID opponentId, int limit) {
+        if (teamId.equals(opponentId)) {
+            throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "Un equipo no puede enfrentarse a sí mismo.");
+        }
+        requireTeam(teamId);
+        requireTeam(opponentId);
+        requirePositiveLimit(limit);
+        return history.headToHead(teamId, opponentId, limit);
+    }
+
+    @Override
+    public int countMatchesBetween(long fromMillis, long toMillis) {
+        return history.countBetween(fromMillis, toMillis);
+    }
+
+    @Override
+    public List<MatchRecord> matchesBetween(long fromMillis, long toMillis, int limit) {
+        requirePositiveLimit(limit);
+        return history.between(fromMillis, toMillis, limit);
+    }
+
+    @Override
+    public List<EloRatings.Entry> ratingTable(int limit) {
+        requirePositiveLimit(limit);
+        return ratings.top(limit);
+    }
+
+    @Override
+    public int ratingRankOf(UUID teamId) {
+        requireTeam(teamId);
+        return ratings.rankOf(teamId);
+    }
+
+    @Override
+    public double ratingOf(UUID teamId) {
+        requireTeam(teamId);
+        return ratings.ratingOf(teamId);
+    }
+
+    // UTILS
+    private void requireTeam(UUID teamId) {
+        if (teamRepository.findTeam(teamId).isEmpty()) {
+            throw new DomainException(DomainErrorCode.TEAM_NOT_FOUND, "Equipo " + teamId + " no encontrado.");
+        }
+    }
+
+    private static void requirePositiveLimit(int limit) {
+        if (limit < 1) {
+            throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "El número de resultados debe ser positivo.");
+        }
+    }
+
+    /**
+     * Collects a matchday's goals and wins into one delta, applies it with a
+     * single repository call and announces the results as one batch.
+     */
+    private void applyMatchday(MatchResult[] results, Standings standings) {
+        StatsDelta delta = new StatsDelta();
+        List<DomainEvent> events = new ArrayList<>(results.length);
+        for (MatchResult result : results) {
+            result.getHomeScorers().forEach(delta::addGoal);
+            result.getAwayScorers().forEach(delta::addGoal);
+            if (result.getWinnerId() != null) delta.addWin(result.getWinnerId());
+            standings.record(result);
+            events.add(new MatchSimulatedEvent(result.getHomeTeamId(), result.getAwayTeamId(),
+                    result.getHomeScorers(), result.getAwayScorers(), result.getSeed()));
+        }
+        statsRepository.applyStats(delta, () -> eventBus.publishAll(events));
+    }
+
+    /** Simulates a slice of a matchday, splitting it in halves while it is large. */
+    @SuppressWarnings("serial") // Serializable only through ForkJoinTask; tasks are never serialized
+    private static final class MatchdayTask extends RecursiveAction {
+        private final List<Fixture> fixtures;
+        private final Map<UUID, TeamProfile> profiles;
+        private final long seasonSeed;
+        private final MatchResult[] results;
+        private final int from, to;
+
+        private MatchdayTask(List<Fixture> fixtures, Map<UUID, TeamProfile> profiles, long seasonSeed,
+                             MatchResult[] results, int from, int to) {
+            this.fixtures = fixtures;
+            this.profiles = profiles;
+            this.seasonSeed = seasonSeed;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= FIXTURES_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    Fixture fixture = fixtures.get(i);
+                    results[i] = MatchSimulator.play(fixture, profiles.get(fixture.getHomeTeamId()),
+                            profiles.get(fixture.getAwayTeamId()), Seeds.forFixture(seasonSeed, fixture.getIndex()));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MatchdayTask(fixtures, profiles, seasonSeed, results, from, mid),
+                    new MatchdayTask(fixtures, profiles, seasonSeed, results, mid, to));
+        }
+    }
+}
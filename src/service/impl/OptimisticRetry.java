@@ -0,0 +1,61 @@
+package service.impl;
+
+import domain.DomainErrorCode;
+import domain.DomainException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Retries an optimistic operation: read the entities, check the rules and
+ * write with the versions read. A write that fails with
+ * {@link DomainErrorCode#CONCURRENT_MODIFICATION} means someone else got
+ * there first, so the whole operation runs again on fresh data, where it may
+ * now succeed or fail with a regular domain error. Any other exception is
+ * thrown at once.
+ * <p>
+ * Between attempts the thread waits a random time whose bound doubles after
+ * every conflict, so writers competing for the same team spread out instead
+ * of colliding again in lockstep.
+ */
+final class OptimisticRetry {
+    static final int MAX_ATTEMPTS = 16;
+    private static final long BASE_BACKOFF_NANOS = 1_000;
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private OptimisticRetry() {
+        // utility class - prevent instantiation
+    }
+
+    /**
+     * @param operation reads, validates and writes; must have no effect when it throws
+     * @return the operation's result
+     * @throws DomainException with {@code CONCURRENT_MODIFICATION} if every attempt conflicted
+     */
+    static <T> T run(Supplier<T> operation) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.get();
+            } catch (DomainException e) {
+                if (e.getErrorCode() != DomainErrorCode.CONCURRENT_MODIFICATION || attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                // Let the winner finish before reading again
+                long bound = BASE_BACKOFF_NANOS << Math.min(attempt, MAX_BACKOFF_SHIFT);
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(bound));
+            }
+        }
+    }
+
+    /**
+     * @param operation reads, validates and writes; must have no effect when it throws
+     * @throws DomainException with {@code CONCURRENT_MODIFICATION} if every attempt conflicted
+     */
+    static void run(Runnable operation) {
+        run(() -> {
+            operation.run();
+            return null;
+        });
+    }
+}
@@ -4,63 +4,116 @@ import domain.DomainErrorCode;
 import domain.DomainException;
 import events.PlayerAddedToTeamEvent;
 import events.PlayerDeletedFromTeamEvent;
+import events.RosterImportedEvent;
 import events.bus.EventBus;
 import model.Player;
 import model.Team;
+import query.Page;
+import query.PlayerFields;
+import query.Query;
+import query.QueryEngine;
+import repository.ChangeSet;
+import repository.ChangeSetRepository;
 import repository.PlayerRepository;
 import repository.TeamRepository;
 import service.PlayerService;
+import service.TransactionService;
+import service.UnitOfWork;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 public class PlayerServiceImpl implements PlayerService {
     private PlayerRepository playerRepository;
     private final TeamRepository teamRepository;
+    private final ChangeSetRepository changeSetRepository;
     private final EventBus eventBus;
+    private final TransactionService transactions;
+    private final QueryEngine<Player> queries;
 
-    public PlayerServiceImpl(PlayerRepository playerRepository, TeamRepository teamRepository, EventBus eventBus) {
+    public PlayerServiceImpl(PlayerRepository playerRepository, TeamRepository teamRepository, EventBus eventBus,
+                             TransactionService transactions) {
+        this(playerRepository, teamRepository, teamRepository, eventBus, transactions);
+    }
+
+    public PlayerServiceImpl(PlayerRepository playerRepository, TeamRepository teamRepository,
+                             ChangeSetRepository changeSetRepository, EventBus eventBus, TransactionService transactions) {
         this.playerRepository = playerRepository;
         this.teamRepository = teamRepository;
+        this.changeSetRepository = changeSetRepository;
         this.eventBus = eventBus;
+        this.transactions = transactions;
+        this.queries = new QueryEngine<>(PlayerFields.ID, playerRepository::streamAllPlayers)
+                .withIndex(PlayerFields.ID, id -> playerRepository.findPlayer(id).map(List::of).orElse(List.of()))
+                .withIndex(PlayerFields.TEAM_ID, playerRepository::findPlayersByTeam);
     }
 
     @Override
     public void addPlayer(Player player) {
-        Team team = teamRepository.findTeam(player.getTeamId())
+        transactions.run(unit -> addPlayer(player, unit));
+    }
+
+    @Override
+    public void addPlayer(Player player, UnitOfWork unit) {
+        Team team = unit.findTeam(player.getTeamId())
                 .orElseThrow(() -> new DomainException(DomainErrorCode.TEAM_NOT_FOUND, "Equipo del jugador no encontrado: " + player.getTeamId()));
 
         // Ensure no duplicate squad numbers in the same team
-        boolean duplicate = playerRepository.findPlayersByTeam(player.getTeamId())
+        boolean duplicate = unit.findPlayersByTeam(player.getTeamId())
                 .stream()
                 .anyMatch(p -> p.getSquadNumber() == player.getSquadNumber());
 
         if (duplicate) {
             throw new DomainException(DomainErrorCode.INVALID_SQUAD_NUMBER, "Dorsal " +  player.getSquadNumber() + " está ya cogido en el equipo " + team.getName());
         }
-        playerRepository.savePlayer(player); // persist updated team
+        unit.savePlayer(player);
 
         // publish event
-        eventBus.publish(new PlayerAddedToTeamEvent(player.getTeamId(), player.getPlayerId(), player.getSquadNumber()));
+        unit.publish(new PlayerAddedToTeamEvent(player.getTeamId(), player.getPlayerId(), player.getFullName(),
+                player.getBirthYear(), player.getFieldLocation(), player.getSquadNumber()));
+    }
 
+    @Override
+    public void addPlayers(Collection<Player> players) {
+        if (players.isEmpty()) return;
+        OptimisticRetry.run(() -> insertPlayers(players));
     }
 
     @Override
     public void deletePlayer(UUID playerId) {
-        Optional<Player> player = playerRepository.findPlayer(playerId);
-        if (player.isEmpty()) {
-            throw new DomainException(DomainErrorCode.PLAYER_NOT_FOUND, "Jugador no encontrado");
-        }
-        playerRepository.deletePlayer(playerId);
-        eventBus.publish(new PlayerDeletedFromTeamEvent(player.get().getTeamId(), playerId));
+        transactions.run(unit -> deletePlayer(playerId, unit));
+    }
+
+    @Override
+    public void deletePlayer(UUID playerId, UnitOfWork unit) {
+        Player player = unit.findPlayer(playerId)
+                .orElseThrow(() -> new DomainException(DomainErrorCode.PLAYER_NOT_FOUND, "Jugador no encontrado"));
+        unit.deletePlayer(player);
+        unit.publish(new PlayerDeletedFromTeamEvent(player.getTeamId(), playerId));
     }
 
     @Override
     public void deletePlayersByTeam(UUID teamId) {
-        // Delete all players related to the team.
-        List<Player> players = playerRepository.findPlayersByTeam(teamId);
-        players.forEach(player -> {deletePlayer(player.getPlayerId());});
+        transactions.run(unit -> deletePlayersByTeam(teamId, unit));
+    }
+
+    @Override
+    public void deletePlayersByTeam(UUID teamId, UnitOfWork unit) {
+        // Delete all players related to the team; the unit announces them as one batch
+        for (Player player : unit.findPlayersByTeam(teamId)) {
+            unit.deletePlayer(player);
+            unit.publish(new PlayerDeletedFromTeamEvent(teamId, player.getPlayerId()));
+        }
     }
 
     @Override
@@ -68,10 +121,81 @@ public class PlayerServiceImpl implements PlayerService {
         return playerRepository.findPlayer(playerId);
     }
 
+    @Override
+    public UUID resolvePlayerId(String idOrShortId) {
+        return IdResolver.resolve(idOrShortId, playerRepository::findPlayerIdsByShortId, DomainErrorCode.PLAYER_NOT_FOUND, "jugador");
+    }
+
     @Override
     public List<Player> findPlayersByTeam(UUID teamId) {
         List<Player> players = playerRepository.findPlayersByTeam(teamId);
         if (players == null) return List.of();
         return players;
     }
+
+    @Override
+    public <R> Page<R> queryPlayers(Query<Player> query, Function<? super Player, ? extends R> projection) {
+        return queries.execute(query, projection);
+    }
+
+    // --- UTILIDADES ---
+    /**
+     * Validates the batch and commits it as one change set, each team
+     * guarded by the version read before its roster.
+     */
+    private void insertPlayers(Collection<Player> players) {
+        List<String> errors = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        Map<UUID, List<Player>> byTeam = new LinkedHashMap<>();
+        for (Player player : players) {
+            if (player == null) {
+                errors.add("Jugador nulo en el lote.");
+                continue;
+            }
+            if (!seen.add(player.getPlayerId())) {
+                errors.add("Jugador " + player.getFullName() + " (" + player.getPlayerId() + ") repetido en el lote.");
+            } else if (playerRepository.findPlayer(player.getPlayerId()).isPresent()) {
+                errors.add("Jugador " + player.getFullName() + " (" + player.getPlayerId() + ") ya existe.");
+            } else {
+                byTeam.computeIfAbsent(player.getTeamId(), id -> new ArrayList<>()).add(player);
+            }
+        }
+
+        // Versions first, then one roster lookup for the whole batch, then one pass per team
+        Map<UUID, Team> teams = new HashMap<>();
+        Map<UUID, Long> versions = new HashMap<>();
+        byTeam.forEach((teamId, newcomers) -> teamRepository.findTeam(teamId).ifPresentOrElse(team -> {
+            teams.put(teamId, team);
+            versions.put(teamId, team.getVersion());
+        }, () -> errors.add("Equipo " + teamId + " no encontrado (" + newcomers.size() + " jugadores).")));
+        Map<UUID, List<Player>> rosters = playerRepository.findPlayersByTeams(teams.keySet());
+        byTeam.forEach((teamId, newcomers) -> {
+            Team team = teams.get(teamId);
+            if (team == null) return;
+            BitSet taken = new BitSet();
+            rosters.getOrDefault(teamId, List.of()).forEach(p -> taken.set(p.getSquadNumber()));
+            for (Player player : newcomers) {
+                if (taken.get(player.getSquadNumber())) {
+                    errors.add("Dorsal " + player.getSquadNumber() + " de " + player.getFullName() + " está ya cogido en el equipo " + team.getName());
+                }
+                taken.set(player.getSquadNumber());
+            }
+        });
+        if (!errors.isEmpty()) {
+            throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "Lote de jugadores rechazado: " + errors.size() + " errores.", errors);
+        }
+        ChangeSet changes = new ChangeSet();
+        byTeam.forEach((teamId, newcomers) -> {
+            changes.expect(teamId, versions.get(teamId));
+            newcomers.forEach(changes::savePlayer);
+        });
+        List<PlayerAddedToTeamEvent> added = new ArrayList<>(players.size());
+        for (Player player : players) {
+            added.add(new PlayerAddedToTeamEvent(player.getTeamId(), player.getPlayerId(), player.getFullName(),
+                    player.getBirthYear(), player.getFieldLocation(), player.getSquadNumber()));
+        }
+        // Stored and logged together: if the log cannot take the event, the players are not stored either
+        RosterImportedEvent imported = new RosterImportedEvent(List.of(), added);
+        changeSetRepository.commit(changes, () -> eventBus.publish(imported));
+    }
 }
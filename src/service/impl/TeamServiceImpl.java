@@ -3,95 +3,221 @@ package service.impl;
 import domain.DomainErrorCode;
 import domain.DomainException;
 import events.MatchSimulatedEvent;
+import events.RosterImportedEvent;
 import events.TeamCreatedEvent;
 import events.TeamDeletedEvent;
 import events.bus.EventBus;
-import model.Player;
+import model.StatsDelta;
 import model.Team;
-import repository.PlayerRepository;
+import model.TeamSummary;
+import query.Page;
+import query.Query;
+import query.QueryEngine;
+import query.TeamFields;
+import repository.ChangeSet;
+import repository.ChangeSetRepository;
+import repository.StatsRepository;
 import repository.TeamRepository;
 import service.TeamService;
+import service.TransactionService;
+import service.UnitOfWork;
+import simulation.Fixture;
+import simulation.MatchResult;
+import simulation.MatchScheduler;
+import simulation.MatchSimulator;
+import simulation.Seeds;
+import simulation.TeamProfileCache;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 public class TeamServiceImpl implements TeamService {
-    private final PlayerRepository playerRepository;
+    private final StatsRepository statsRepository;
     private final TeamRepository teamRepository;
+    private final ChangeSetRepository changeSetRepository;
     private final EventBus eventBus;
+    private final TeamProfileCache profileCache;
+    private final MatchScheduler scheduler;
+    private final TransactionService transactions;
+    private final QueryEngine<Team> queries;
 
-    public TeamServiceImpl(PlayerRepository playerRepository ,TeamRepository teamRepository, EventBus eventBus) {
-        this.playerRepository = playerRepository;
+    public TeamServiceImpl(StatsRepository statsRepository, TeamRepository teamRepository, EventBus eventBus,
+                           TeamProfileCache profileCache, MatchScheduler scheduler, TransactionService transactions) {
+        this(statsRepository, teamRepository, teamRepository, eventBus, profileCache, scheduler, transactions);
+    }
+
+    public TeamServiceImpl(StatsRepository statsRepository, TeamRepository teamRepository, ChangeSetRepository changeSetRepository,
+                           EventBus eventBus, TeamProfileCache profileCache, MatchScheduler scheduler,
+                           TransactionService transactions) {
+        this.statsRepository = statsRepository;
         this.teamRepository = teamRepository;
+        this.changeSetRepository = changeSetRepository;
         this.eventBus = eventBus;
+        this.profileCache = profileCache;
+        this.scheduler = scheduler;
+        this.transactions = transactions;
+        this.queries = new QueryEngine<>(TeamFields.ID, teamRepository::streamAllTeams)
+                .withIndex(TeamFields.ID, id -> teamRepository.findTeam(id).map(List::of).orElse(List.of()));
     }
 
     @Override
     public Team createTeam(String name, String city, String coach, String formation) {
+        Team created = transactions.call(unit -> createTeam(name, city, coach, formation, unit));
+        // The repository stores a stamped copy; hand that one back
+        return teamRepository.findTeam(created.getTeamId()).orElse(created);
+    }
+
+    @Override
+    public Team createTeam(String name, String city, String coach, String formation, UnitOfWork unit) {
         Team team = new Team(name, city, coach, formation);
-        teamRepository.saveTeam(team);
+        unit.saveTeam(team);
 
         // publish event
-        eventBus.publish(new TeamCreatedEvent(team.getTeamId(), name, city, coach, formation));
+        unit.publish(new TeamCreatedEvent(team.getTeamId(), name, city, coach, formation));
         return team;
     }
 
+    @Override
+    public void createTeams(Collection<Team> teams) {
+        if (teams.isEmpty()) return;
+        // A team created meanwhile under one of the ids turns into a validation error on the next attempt
+        OptimisticRetry.run(() -> insertTeams(teams));
+    }
+
     @Override
     public void deleteTeam(UUID teamId) {
-        Optional<Team> existing = teamRepository.findTeam(teamId);
-        if (existing.isEmpty()) {
-            throw new DomainException(DomainErrorCode.TEAM_NOT_FOUND, "Equipo "+ teamId +" no encontrado.");
-        }
-        teamRepository.deleteTeam(teamId);
-        eventBus.publish(new TeamDeletedEvent(teamId, existing.get().getName()));
+        transactions.run(unit -> deleteTeam(teamId, unit));
+    }
+
+    @Override
+    public void deleteTeam(UUID teamId, UnitOfWork unit) {
+        Team existing = unit.findTeam(teamId)
+                .orElseThrow(() -> new DomainException(DomainErrorCode.TEAM_NOT_FOUND, "Equipo " + teamId + " no encontrado."));
+        // The roster goes with the team, announced by the same event
+        List<UUID> playerIds = new ArrayList<>();
+        unit.findPlayersByTeam(teamId).forEach(player -> playerIds.add(player.getPlayerId()));
+        unit.deleteTeam(teamId);
+        unit.publish(new TeamDeletedEvent(teamId, existing.getName(), playerIds));
     }
 
     @Override
     public Optional<Team> findTeam(UUID teamId) {
-        Optional<Team> existing = teamRepository.findTeam(teamId);
-        if (existing.isEmpty()) {
-            throw new DomainException(DomainErrorCode.TEAM_NOT_FOUND, "Equipo "+ teamId +" no encontrado.");
-        }
-        return existing;
+        return Optional.of(requireTeam(teamId));
+    }
+
+    @Override
+    public UUID resolveTeamId(String idOrShortId) {
+        return IdResolver.resolve(idOrShortId, teamRepository::findTeamIdsByShortId, DomainErrorCode.TEAM_NOT_FOUND, "equipo");
     }
 
     @Override
     public List<Team> findAllTeams() { return teamRepository.findAllTeams(); }
 
+    @Override
+    public Optional<TeamSummary> findTeamSummary(UUID teamId) { return teamRepository.findTeamSummary(teamId); }
+
+    @Override
+    public List<TeamSummary> findAllTeamSummaries() { return teamRepository.findAllTeamSummaries(); }
+
+    @Override
+    public <R> Page<R> queryTeams(Query<Team> query, Function<? super Team, ? extends R> projection) {
+        return queries.execute(query, projection);
+    }
+
     @Override
     public Optional<Team> simulateMatch(UUID teamAid, UUID teamBid) {
-        int goalsA = generateGoals(teamAid);
-        int goalsB = generateGoals(teamBid);
-        if (goalsA > goalsB) {
-            Optional<Team> teamA = teamRepository.findTeam(teamAid);
-            teamA.ifPresent(Team::incrementMatchesWon);
-            teamA.ifPresent(teamRepository::saveTeam);
-            // Publish event with result
-            eventBus.publish(new MatchSimulatedEvent(teamAid, teamBid, goalsA, goalsB));
-            return teamA;
-        } else if (goalsB > goalsA) {
-            Optional<Team> teamB = teamRepository.findTeam(teamBid);
-            teamB.ifPresent(Team::incrementMatchesWon);
-            teamB.ifPresent(teamRepository::saveTeam);
-            // Publish event with result
-            eventBus.publish(new MatchSimulatedEvent(teamAid, teamBid, goalsA, goalsB));
-            return teamB;
-        }
-        return Optional.empty();
+        return simulateMatch(teamAid, teamBid, Seeds.newSeed());
+    }
+
+    @Override
+    public Optional<Team> simulateMatch(UUID teamAid, UUID teamBid, long seed) {
+        MatchResult result = playMatch(teamAid, teamBid, seed);
+        return result.getWinnerId() == null ? Optional.empty() : teamRepository.findTeam(result.getWinnerId());
+    }
+
+    @Override
+    public CompletableFuture<MatchResult> submitMatch(UUID teamAid, UUID teamBid) {
+        return submitMatch(teamAid, teamBid, Seeds.newSeed());
+    }
+
+    @Override
+    public CompletableFuture<MatchResult> submitMatch(UUID teamAid, UUID teamBid, long seed) {
+        requireDifferentTeams(teamAid, teamBid);
+        return scheduler.submit(teamAid, teamBid, () -> playMatch(teamAid, teamBid, seed));
     }
 
     // UTILS
-    private int generateGoals(UUID teamId) {
-        Random random = new Random();
-        int goals = 0;
-        List<Player> players = playerRepository.findPlayersByTeam(teamId);
-        for (Player player : players) {
-            boolean outcome  = random.nextBoolean(); // true=goal
-            if (outcome) {
-                player.incrementGoals();
-                playerRepository.savePlayer(player);
-                goals++;
+    private Team requireTeam(UUID teamId) {
+        return teamRepository.findTeam(teamId)
+                .orElseThrow(() -> new DomainException(DomainErrorCode.TEAM_NOT_FOUND, "Equipo " + teamId + " no encontrado."));
+    }
+
+    private static void requireDifferentTeams(UUID teamAid, UUID teamBid) {
+        if (teamAid.equals(teamBid)) {
+            throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "Un equipo no puede jugar contra sí mismo.");
+        }
+    }
+
+    /** Validates the batch and inserts it; on a conflict, removes what it inserted and rethrows. */
+    private void insertTeams(Collection<Team> teams) {
+        List<String> errors = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        for (Team team : teams) {
+            if (team == null) {
+                errors.add("Equipo nulo en el lote.");
+            } else if (!seen.add(team.getTeamId())) {
+                errors.add("Equipo " + team.getName() + " (" + team.getTeamId() + ") repetido en el lote.");
+            } else if (teamRepository.findTeam(team.getTeamId()).isPresent()) {
+                errors.add("Equipo " + team.getName() + " (" + team.getTeamId() + ") ya existe.");
             }
         }
-        return goals;
+        if (!errors.isEmpty()) {
+            throw new DomainException(DomainErrorCode.VALIDATION_ERROR, "Lote de equipos rechazado: " + errors.size() + " errores.", errors);
+        }
+        ChangeSet changes = new ChangeSet();
+        List<TeamCreatedEvent> created = new ArrayList<>(teams.size());
+        for (Team team : teams) {
+            changes.expect(team.getTeamId(), 0);
+            changes.saveTeam(team);
+            created.add(new TeamCreatedEvent(team.getTeamId(), team.getName(), team.getCity(), team.getCoach(), team.getFormation()));
+        }
+        // Stored and logged together: if the log cannot take the event, the teams are not stored either
+        RosterImportedEvent imported = new RosterImportedEvent(created, List.of());
+        changeSetRepository.commit(changes, () -> eventBus.publish(imported));
+    }
+
+    /**
+     * Plays the match, applies its goals and win, and announces it. If either
+     * team changes or is deleted while the match is simulated, the result is
+     * discarded and the match is played again on the current teams.
+     */
+    private MatchResult playMatch(UUID teamAid, UUID teamBid, long seed) {
+        requireDifferentTeams(teamAid, teamBid);
+        MatchResult result = OptimisticRetry.run(() -> {
+            long versionA = requireTeam(teamAid).getVersion(), versionB = requireTeam(teamBid).getVersion();
+            MatchResult played = MatchSimulator.play(new Fixture(0, 0, teamAid, teamBid),
+                    profileCache.profileOf(teamAid), profileCache.profileOf(teamBid), seed);
+            requireVersion(teamAid, versionA);
+            requireVersion(teamBid, versionB);
+            return played;
+        });
+        // Goals and win go to the repository in a single call
+        StatsDelta delta = new StatsDelta();
+        result.getHomeScorers().forEach(delta::addGoal);
+        result.getAwayScorers().forEach(delta::addGoal);
+        if (result.getWinnerId() != null) delta.addWin(result.getWinnerId());
+        // Publish event with result (draws too: the scorers' goals changed)
+        MatchSimulatedEvent event = new MatchSimulatedEvent(teamAid, teamBid, result.getHomeScorers(), result.getAwayScorers(), seed);
+        statsRepository.applyStats(delta, () -> eventBus.publish(event));
+        return result;
+    }
+
+    private void requireVersion(UUID teamId, long expectedVersion) {
+        long version = requireTeam(teamId).getVersion();
+        if (version != expectedVersion) {
+            throw new DomainException(DomainErrorCode.CONCURRENT_MODIFICATION,
+                    "El equipo " + teamId + " ha cambiado durante el partido (versión " + version + ", se esperaba " + expectedVersion + ").");
+        }
     }
 }
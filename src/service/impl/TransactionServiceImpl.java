@@ -0,0 +1,48 @@
+package service.impl;
+
+import events.bus.EventBus;
+import repository.ChangeSetRepository;
+import repository.PlayerRepository;
+import repository.TeamRepository;
+import service.TransactionService;
+import service.UnitOfWork;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class TransactionServiceImpl implements TransactionService {
+    private final TeamRepository teamRepository;
+    private final PlayerRepository playerRepository;
+    private final ChangeSetRepository changeSetRepository;
+    private final EventBus eventBus;
+
+    public TransactionServiceImpl(TeamRepository teamRepository, PlayerRepository playerRepository, EventBus eventBus) {
+        this(teamRepository, playerRepository, teamRepository, eventBus);
+    }
+
+    public TransactionServiceImpl(TeamRepository teamRepository, PlayerRepository playerRepository,
+                                  ChangeSetRepository changeSetRepository, EventBus eventBus) {
+        this.teamRepository = teamRepository;
+        this.playerRepository = playerRepository;
+        this.changeSetRepository = changeSetRepository;
+        this.eventBus = eventBus;
+    }
+
+    @Override
+    public void run(Consumer<UnitOfWork> work) {
+        call(unit -> {
+            work.accept(unit);
+            return null;
+        });
+    }
+
+    @Override
+    public <T> T call(Function<UnitOfWork, T> work) {
+        return OptimisticRetry.run(() -> {
+            UnitOfWork unit = new UnitOfWork(teamRepository, playerRepository, changeSetRepository, eventBus);
+            T result = work.apply(unit);
+            unit.commit();
+            return result;
+        });
+    }
+}
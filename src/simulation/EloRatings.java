@@ -0,0 +1,408 @@
+package simulation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Elo rating of every team, updated in constant time from each match result
+ * with the World Football Elo formula: {@code K * G * (score - expected)},
+ * where {@code G} grows with the goal difference. Ratings are zero-sum, so
+ * the average stays at {@link #INITIAL_RATING}.
+ * <p>
+ * Teams live in slots of primitive arrays. An open-addressing table maps a
+ * team id (its two longs) to its slot, and the slots are linked into an
+ * order-statistic treap sorted by rating, so the top {@code k} teams cost
+ * {@code O(log n + k)} and the rank of a team {@code O(log n)}.
+ * <p>
+ * Optionally the ratings also set the odds of the simulations, see
+ * {@link #strengthOf(UUID)}; seeded matches are then no longer
+ * reproducible, since the odds depend on ratings the events do not record.
+ * Thread-safe.
+ */
+public class EloRatings {
+    /** Rating of a team that has not played yet. */
+    public static final double INITIAL_RATING = 1500;
+    private static final double K_FACTOR = 20;
+    private static final double SCALE = 400;
+    // Rating difference from the average that doubles (or halves) a team's scoring odds
+    private static final double ODDS_DOUBLING = 480;
+    private static final double MIN_STRENGTH = 0.5, MAX_STRENGTH = 2.0;
+
+    // --- SLOTS (un equipo por slot) ---
+    private long[] msb = new long[16], lsb = new long[16];
+    private double[] rating = new double[16];
+    private int[] played = new int[16];
+    private int slots;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    // --- TABLA ID -> SLOT (slot + 1, 0 = libre) ---
+    private int[] table = new int[32];
+    private int teams;
+
+    // --- TREAP POR RATING ---
+    private int[] left = new int[16], right = new int[16], size = new int[16], priority = new int[16];
+    private int root = -1;
+    private final SplittableRandom priorities = new SplittableRandom(0x5EED);
+    private int splitLeft, splitRight;
+
+    /**
+     * Registers a team at the initial rating; does nothing if it is known.
+     *
+     * @param teamId the team
+     */
+    public synchronized void addTeam(UUID teamId) {
+        slotOrAdd(teamId);
+    }
+
+    /**
+     * Forgets a team.
+     *
+     * @param teamId the team
+     */
+    public synchronized void removeTeam(UUID teamId) {
+        int position = find(teamId.getMostSignificantBits(), teamId.getLeastSignificantBits());
+        if (table[position] == 0) return;
+        int slot = table[position] - 1;
+        root = remove(root, slot);
+        deleteAt(position);
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        teams--;
+    }
+
+    /**
+     * Updates both teams' ratings with a result. Both teams must have been
+     * registered with {@link #addTeam(UUID)}: a result involving a team that
+     * is unknown or already removed (e.g. a match that finished after its
+     * team was deleted) is skipped, since rating it would bring the team
+     * back into the ranking and move points into or out of the table. A
+     * team playing itself changes nothing either.
+     *
+     * @param homeTeamId the home team
+     * @param awayTeamId the away team
+     * @param homeGoals  goals of the home team
+     * @param awayGoals  goals of the away team
+     */
+    public synchronized void record(UUID homeTeamId, UUID awayTeamId, int homeGoals, int awayGoals) {
+        if (homeTeamId.equals(awayTeamId)) return;
+        int home = slotOf(homeTeamId), away = slotOf(awayTeamId);
+        if (home < 0 || away < 0) return;
+        double expected = 1 / (1 + Math.pow(10, (rating[away] - rating[home]) / SCALE));
+        double score = homeGoals > awayGoals ? 1 : homeGoals == awayGoals ? 0.5 : 0;
+        int margin = Math.abs(homeGoals - awayGoals);
+        double weight = margin <= 1 ? 1 : margin == 2 ? 1.5 : (11.0 + margin) / 8;
+        double change = K_FACTOR * weight * (score - expected);
+        root = remove(root, home);
+        root = remove(root, away);
+        rating[home] += change;
+        rating[away] -= change;
+        played[home]++;
+        played[away]++;
+        root = insert(root, home);
+        root = insert(root, away);
+    }
+
+    /**
+     * @param teamId the team
+     * @return the team's rating, or the initial rating if it is unknown
+     */
+    public synchronized double ratingOf(UUID teamId) {
+        int position = find(teamId.getMostSignificantBits(), teamId.getLeastSignificantBits());
+        return table[position] == 0 ? INITIAL_RATING : rating[table[position] - 1];
+    }
+
+    /**
+     * @param teamId the team
+     * @return 1-based position in the ranking, or 0 if the team is unknown
+     */
+    public synchronized int rankOf(UUID teamId) {
+        int position = find(teamId.getMostSignificantBits(), teamId.getLeastSignificantBits());
+        if (table[position] == 0) return 0;
+        int node = table[position] - 1, rank = 0, t = root;
+        while (t != node) {
+            if (before(node, t)) {
+                t = left[t];
+            } else {
+                rank += sizeOf(left[t]) + 1;
+                t = right[t];
+            }
+        }
+        return rank + sizeOf(left[node]) + 1;
+    }
+
+    /**
+     * @param limit maximum number of entries
+     * @return the best rated teams, best first
+     */
+    public synchronized List<Entry> top(int limit) {
+        List<Entry> entries = new ArrayList<>(Math.min(limit, teams));
+        int[] stack = new int[64];
+        int depth = 0, t = root;
+        while ((t >= 0 || depth > 0) && entries.size() < limit) {
+            while (t >= 0) {
+                if (depth == stack.length) stack = Arrays.copyOf(stack, depth * 2);
+                stack[depth++] = t;
+                t = left[t];
+            }
+            t = stack[--depth];
+            entries.add(new Entry(entries.size() + 1, new UUID(msb[t], lsb[t]), rating[t], played[t]));
+            t = right[t];
+        }
+        return entries;
+    }
+
+    /** @return number of rated teams */
+    public synchronized int size() { return teams; }
+
+    /**
+     * Scoring odds of a team relative to an average team: 1 at the initial
+     * rating, doubled every {@value #ODDS_DOUBLING} points above it and
+     * halved every {@value #ODDS_DOUBLING} points below, within [0.5, 2].
+     *
+     * @param teamId the team
+     * @return the factor to apply to the team's scoring probabilities
+     */
+    public double strengthOf(UUID teamId) {
+        double factor = Math.pow(2, (ratingOf(teamId) - INITIAL_RATING) / ODDS_DOUBLING);
+        return Math.max(MIN_STRENGTH, Math.min(MAX_STRENGTH, factor));
+    }
+
+    // --- PERSISTENCIA ---
+
+    /**
+     * @param out the destination
+     * @throws IOException if an IO error occurs
+     */
+    public synchronized void writeTo(DataOutput out) throws IOException {
+        out.writeInt(teams);
+        for (int position = 0; position < table.length; position++) {
+            if (table[position] == 0) continue;
+            int slot = table[position] - 1;
+            out.writeLong(msb[slot]);
+            out.writeLong(lsb[slot]);
+            out.writeDouble(rating[slot]);
+            out.writeInt(played[slot]);
+        }
+    }
+
+    /**
+     * Replaces the ratings with those written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in the source
+     * @throws IOException if an IO error occurs
+     */
+    public synchronized void readFrom(DataInput in) throws IOException {
+        table = new int[32];
+        teams = slots = freeCount = 0;
+        root = -1;
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            UUID teamId = new UUID(in.readLong(), in.readLong());
+            int slot = slotOrAdd(teamId);
+            root = remove(root, slot);
+            rating[slot] = in.readDouble();
+            played[slot] = in.readInt();
+            root = insert(root, slot);
+        }
+    }
+
+    // --- UTILIDADES: TABLA ---
+    /** Slot of a registered team, or -1. */
+    private int slotOf(UUID teamId) {
+        int position = find(teamId.getMostSignificantBits(), teamId.getLeastSignificantBits());
+        return table[position] - 1;
+    }
+
+    private int slotOrAdd(UUID teamId) {
+        long high = teamId.getMostSignificantBits(), low = teamId.getLeastSignificantBits();
+        int position = find(high, low);
+        if (table[position] != 0) return table[position] - 1;
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : newSlot();
+        msb[slot] = high;
+        lsb[slot] = low;
+        rating[slot] = INITIAL_RATING;
+        played[slot] = 0;
+        priority[slot] = priorities.nextInt();
+        left[slot] = right[slot] = -1;
+        size[slot] = 1;
+        table[position] = slot + 1;
+        if (++teams * 2 > table.length) {
+            growTable();
+        }
+        root = insert(root, slot);
+        return slot;
+    }
+
+    private int newSlot() {
+        if (slots == msb.length) {
+            int capacity = slots * 2;
+            msb = Arrays.copyOf(msb, capacity);
+            lsb = Arrays.copyOf(lsb, capacity);
+            rating = Arrays.copyOf(rating, capacity);
+            played = Arrays.copyOf(played, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            size = Arrays.copyOf(size, capacity);
+            priority = Arrays.copyOf(priority, capacity);
+        }
+        return slots++;
+    }
+
+    /** Position holding the team, or the free position where it would go. */
+    private int find(long high, long low) {
+        int mask = table.length - 1;
+        int position = home(high, low, mask);
+        while (table[position] != 0) {
+            int slot = table[position] - 1;
+            if (msb[slot] == high && lsb[slot] == low) break;
+            position = (position + 1) & mask;
+        }
+        return position;
+    }
+
+    private static int home(long high, long low, int mask) {
+        long hash = (high ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /** Removes an entry and shifts back the ones that probed past it. */
+    private void deleteAt(int position) {
+        int mask = table.length - 1;
+        table[position] = 0;
+        int next = position;
+        while (true) {
+            next = (next + 1) & mask;
+            if (table[next] == 0) return;
+            int slot = table[next] - 1;
+            int wanted = home(msb[slot], lsb[slot], mask);
+            // Move it back unless its home lies cyclically in (position, next]
+            boolean stays = position <= next
+                    ? position < wanted && wanted <= next
+                    : position < wanted || wanted <= next;
+            if (!stays) {
+                table[position] = table[next];
+                table[next] = 0;
+                position = next;
+            }
+        }
+    }
+
+    private void growTable() {
+        int[] old = table;
+        table = new int[old.length * 2];
+        for (int entry : old) {
+            if (entry != 0) {
+                table[find(msb[entry - 1], lsb[entry - 1])] = entry;
+            }
+        }
+    }
+
+    // --- UTILIDADES: TREAP ---
+    /** Ranking order: higher rating first, then by id so that the order is total. */
+    private boolean before(int a, int b) {
+        if (rating[a] != rating[b]) return rating[a] > rating[b];
+        if (msb[a] != msb[b]) return msb[a] < msb[b];
+        return lsb[a] < lsb[b];
+    }
+
+    private int sizeOf(int node) { return node < 0 ? 0 : size[node]; }
+
+    private void update(int node) { size[node] = sizeOf(left[node]) + sizeOf(right[node]) + 1; }
+
+    private int insert(int t, int node) {
+        if (t < 0) {
+            left[node] = right[node] = -1;
+            size[node] = 1;
+            return node;
+        }
+        if (priority[node] > priority[t]) {
+            split(t, node);
+            left[node] = splitLeft;
+            right[node] = splitRight;
+            update(node);
+            return node;
+        }
+        if (before(node, t)) {
+            left[t] = insert(left[t], node);
+        } else {
+            right[t] = insert(right[t], node);
+        }
+        update(t);
+        return t;
+    }
+
+    private int remove(int t, int node) {
+        if (t == node) {
+            return merge(left[t], right[t]);
+        }
+        if (before(node, t)) {
+            left[t] = remove(left[t], node);
+        } else {
+            right[t] = remove(right[t], node);
+        }
+        update(t);
+        return t;
+    }
+
+    /** Splits {@code t} into the nodes ranked before {@code key} and the rest. */
+    private void split(int t, int key) {
+        if (t < 0) {
+            splitLeft = splitRight = -1;
+            return;
+        }
+        if (before(t, key)) {
+            split(right[t], key);
+            right[t] = splitLeft;
+            update(t);
+            splitLeft = t;
+        } else {
+            split(left[t], key);
+            left[t] = splitRight;
+            update(t);
+            splitRight = t;
+        }
+    }
+
+    /** Joins two treaps where every node of {@code a} ranks before every node of {@code b}. */
+    private int merge(int a, int b) {
+        if (a < 0) return b;
+        if (b < 0) return a;
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    /**
+     * One line of the rating table.
+     */
+    public static final class Entry {
+        private final int position;
+        private final UUID teamId;
+        private final double rating;
+        private final int played;
+
+        private Entry(int position, UUID teamId, double rating, int played) {
+            this.position = position;
+            this.teamId = teamId;
+            this.rating = rating;
+            this.played = played;
+        }
+
+        public int getPosition() { return this.position; }
+        public UUID getTeamId() { return this.teamId; }
+        public double getRating() { return this.rating; }
+        public int getPlayed() { return this.played; }
+    }
+}
@@ -0,0 +1,29 @@
+package simulation;
+
+import java.util.UUID;
+
+/**
+ * A scheduled match between two teams on a given matchday. The index is the
+ * fixture's position in the whole season and is used to derive its seed.
+ */
+public final class Fixture {
+    private final int matchday, index;
+    private final UUID homeTeamId, awayTeamId;
+
+    public Fixture(int matchday, int index, UUID homeTeamId, UUID awayTeamId) {
+        this.matchday = matchday;
+        this.index = index;
+        this.homeTeamId = homeTeamId;
+        this.awayTeamId = awayTeamId;
+    }
+
+    public int getMatchday() { return this.matchday; }
+    public int getIndex() { return this.index; }
+    public UUID getHomeTeamId() { return this.homeTeamId; }
+    public UUID getAwayTeamId() { return this.awayTeamId; }
+
+    @Override
+    public String toString() {
+        return "J" + (matchday + 1) + ": " + homeTeamId + " vs " + awayTeamId;
+    }
+}
@@ -0,0 +1,81 @@
+package simulation;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Bit-parallel goal generation. A {@link TeamProfile} stores each player's
+ * scoring threshold bit-sliced, one bit lane per player, so up to 64 players
+ * are drawn at once: a player scores when its uniformly random 8-bit number
+ * is below its threshold, and that comparison is evaluated for all lanes
+ * together, most significant bit first, with one random word per bit.
+ * Counting the set bits of the result gives the team's goals, and iterating
+ * them gives the scorers.
+ */
+public final class GoalKernel {
+
+    private GoalKernel() {
+        // utility class - prevent instantiation
+    }
+
+    /**
+     * @param profile the team's scoring table
+     * @param random  source of randomness
+     * @return number of goals scored by the team
+     */
+    public static int goals(TeamProfile profile, RandomGenerator random) {
+        long[] planes = profile.planes();
+        int size = profile.getRosterSize();
+        int goals = 0;
+        for (int base = 0, first = 0; base < planes.length; base += TeamProfile.THRESHOLD_BITS, first += Long.SIZE) {
+            goals += Long.bitCount(draw(planes, base, rosterMask(size - first), random));
+        }
+        return goals;
+    }
+
+    /**
+     * Consumes exactly the same random words as {@link #goals(TeamProfile, RandomGenerator)}
+     * and returns who scored.
+     *
+     * @param profile the team's scoring table
+     * @param random  source of randomness
+     * @param into    receives the scorers, in profile order
+     */
+    public static void scorers(TeamProfile profile, RandomGenerator random, List<UUID> into) {
+        long[] planes = profile.planes();
+        List<UUID> players = profile.getPlayerIds();
+        for (int base = 0, first = 0; base < planes.length; base += TeamProfile.THRESHOLD_BITS, first += Long.SIZE) {
+            long bits = draw(planes, base, rosterMask(players.size() - first), random);
+            while (bits != 0) {
+                into.add(players.get(first + Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * @param players number of players covered by a word (1 to 64)
+     * @return a mask with the {@code players} low bits set
+     */
+    public static long rosterMask(int players) {
+        return players >= Long.SIZE ? -1L : (1L << players) - 1;
+    }
+
+    /**
+     * Bit-sliced {@code random < threshold} over the lanes of {@code mask}:
+     * {@code equal} tracks the lanes whose random prefix still matches the
+     * threshold, {@code less} the lanes already known to be below it. Always
+     * draws all eight words; stopping early once {@code equal} is empty was
+     * measured and saved nothing, the branch costs as much as the words.
+     */
+    private static long draw(long[] planes, int base, long mask, RandomGenerator random) {
+        long less = 0, equal = mask;
+        for (int k = 0; k < TeamProfile.THRESHOLD_BITS; k++) {
+            long r = random.nextLong(), t = planes[base + k];
+            less |= equal & ~r & t;
+            equal &= ~(r ^ t);
+        }
+        return less;
+    }
+}
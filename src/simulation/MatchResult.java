@@ -0,0 +1,37 @@
+package simulation;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Outcome of a simulated fixture: the players who scored for each side and
+ * the seed that produced them.
+ */
+public final class MatchResult {
+    private final Fixture fixture;
+    private final List<UUID> homeScorers, awayScorers;
+    private final long seed;
+
+    public MatchResult(Fixture fixture, long seed, List<UUID> homeScorers, List<UUID> awayScorers) {
+        this.fixture = fixture;
+        this.seed = seed;
+        this.homeScorers = List.copyOf(homeScorers);
+        this.awayScorers = List.copyOf(awayScorers);
+    }
+
+    public Fixture getFixture() { return this.fixture; }
+    public long getSeed() { return this.seed; }
+    public UUID getHomeTeamId() { return this.fixture.getHomeTeamId(); }
+    public UUID getAwayTeamId() { return this.fixture.getAwayTeamId(); }
+    public List<UUID> getHomeScorers() { return this.homeScorers; }
+    public List<UUID> getAwayScorers() { return this.awayScorers; }
+    public int getHomeGoals() { return this.homeScorers.size(); }
+    public int getAwayGoals() { return this.awayScorers.size(); }
+
+    /** @return the winning team, or null for a draw */
+    public UUID getWinnerId() {
+        if (getHomeGoals() > getAwayGoals()) return getHomeTeamId();
+        if (getAwayGoals() > getHomeGoals()) return getAwayTeamId();
+        return null;
+    }
+}
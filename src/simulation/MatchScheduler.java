@@ -0,0 +1,135 @@
+package simulation;
+
+import domain.DomainErrorCode;
+import domain.DomainException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs match simulations asynchronously on a fixed number of threads.
+ * <ul>
+ *   <li><b>Bounded:</b> at most {@code capacity} jobs may be admitted and not
+ *       yet finished; beyond that {@link #submit} fails at once instead of
+ *       piling up work.</li>
+ *   <li><b>Per-team order:</b> every team has a tail, the completion of its
+ *       last admitted job. A job starts only when the tails of both its
+ *       teams are complete and then becomes the tail of both, so jobs that
+ *       share a team run one after the other in submission order, while
+ *       jobs on different teams run in parallel. A job waiting for its turn
+ *       holds no thread.</li>
+ *   <li><b>Cancellation:</b> cancelling the returned future before the job
+ *       starts skips it; the teams' later jobs still run. A simulation that
+ *       has already started is not interrupted.</li>
+ * </ul>
+ */
+public class MatchScheduler {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final ExecutorService workers;
+    private final Semaphore slots;
+    private final int capacity;
+    // Last admitted job of each team with work in flight
+    private final Map<UUID, CompletableFuture<Void>> tails = new HashMap<>();
+
+    /**
+     * @param concurrency maximum number of simulations running at once
+     * @param capacity    maximum number of admitted, unfinished jobs
+     */
+    public MatchScheduler(int concurrency, int capacity) {
+        if (concurrency < 1 || capacity < 1) {
+            throw new IllegalArgumentException("El planificador necesita al menos un hilo y capacidad positiva.");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "match-scheduler-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.workers = Executors.newFixedThreadPool(concurrency, factory);
+        this.slots = new Semaphore(capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * Admits a job that involves two teams.
+     *
+     * @param teamA one team of the match
+     * @param teamB the other team of the match
+     * @param job   the work to run; its exceptions complete the future exceptionally
+     * @return completed with the job's result once it has run
+     * @throws DomainException with {@link DomainErrorCode#QUEUE_FULL} if {@code capacity} jobs are pending
+     */
+    public <T> CompletableFuture<T> submit(UUID teamA, UUID teamB, Supplier<T> job) {
+        if (!slots.tryAcquire()) {
+            throw new DomainException(DomainErrorCode.QUEUE_FULL,
+                    "Cola de simulaciones llena: " + capacity + " trabajos pendientes.");
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        result.whenComplete((value, error) -> slots.release());
+        CompletableFuture<Void> finished;
+        synchronized (tails) {
+            CompletableFuture<Void> turn = CompletableFuture.allOf(tailOf(teamA), tailOf(teamB));
+            // The tail always completes normally, even if the pool rejects the job after shutdown
+            finished = turn.thenRunAsync(() -> run(job, result), workers)
+                    .exceptionally(error -> {
+                        result.completeExceptionally(error);
+                        return null;
+                    });
+            tails.put(teamA, finished);
+            tails.put(teamB, finished);
+        }
+        finished.whenComplete((value, error) -> {
+            synchronized (tails) {
+                tails.remove(teamA, finished);
+                tails.remove(teamB, finished);
+            }
+        });
+        return result;
+    }
+
+    /** @return number of admitted jobs that have not finished */
+    public int getPending() { return capacity - slots.availablePermits(); }
+
+    /** @return maximum number of admitted, unfinished jobs */
+    public int getCapacity() { return capacity; }
+
+    /**
+     * Stops accepting work and waits for the running and queued simulations
+     * to finish. Jobs still waiting for their turn fail with a rejection.
+     */
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // --- UTILIDADES ---
+    private CompletableFuture<Void> tailOf(UUID teamId) {
+        CompletableFuture<Void> tail = tails.get(teamId);
+        return tail == null ? CompletableFuture.completedFuture(null) : tail;
+    }
+
+    private static <T> void run(Supplier<T> job, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return; // cancelled while waiting
+        }
+        try {
+            result.complete(job.get());
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+}
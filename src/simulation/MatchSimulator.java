@@ -0,0 +1,49 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.random.RandomGenerator;
+
+/**
+ * Decides the outcome of a fixture from the two teams' profiles. It has no
+ * side effects and touches no repository, so any number of fixtures can be
+ * simulated concurrently; applying the result is up to the caller.
+ * <p>
+ * The outcome is a pure function of the seed and the profiles: playing the
+ * same fixture again with the same seed and the same rosters gives the same
+ * scorers.
+ */
+public final class MatchSimulator {
+
+    private MatchSimulator() {
+        // utility class - prevent instantiation
+    }
+
+    /**
+     * Every player scores at most once, with the player's probability in the team profile.
+     *
+     * @param fixture the fixture to play
+     * @param home    profile of the home team
+     * @param away    profile of the away team
+     * @param seed    the fixture's seed, see {@link Seeds}
+     * @return the result of the match
+     */
+    public static MatchResult play(Fixture fixture, TeamProfile home, TeamProfile away, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return new MatchResult(fixture, seed, pickScorers(home, random), pickScorers(away, random));
+    }
+
+    /**
+     * @param profile profile of a team
+     * @param random  source of randomness
+     * @return the players who scored one goal each
+     * @see GoalKernel
+     */
+    public static List<UUID> pickScorers(TeamProfile profile, RandomGenerator random) {
+        List<UUID> scorers = new ArrayList<>();
+        GoalKernel.scorers(profile, random, scorers);
+        return scorers;
+    }
+}
@@ -0,0 +1,67 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Builds round-robin fixture lists with the circle method: the first team
+ * stays fixed while the others rotate one place per matchday, so every team
+ * meets every other team exactly once and plays at most once per matchday.
+ * With an odd number of teams a bye is added and one team rests each
+ * matchday. The output depends only on the order of the given teams.
+ */
+public final class RoundRobinScheduler {
+
+    private RoundRobinScheduler() {
+        // utility class - prevent instantiation
+    }
+
+    /**
+     * @param teamIds          the participating teams (at least two, no duplicates)
+     * @param doubleRoundRobin if true a second half is added with home and away swapped
+     * @return one list of fixtures per matchday, in playing order
+     */
+    public static List<List<Fixture>> schedule(List<UUID> teamIds, boolean doubleRoundRobin) {
+        if (teamIds.size() < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos dos equipos para una liga.");
+        }
+        List<UUID> circle = new ArrayList<>(teamIds);
+        if (circle.size() % 2 != 0) {
+            circle.add(null); // descanso
+        }
+        int n = circle.size();
+        int rounds = n - 1;
+        List<List<Fixture>> matchdays = new ArrayList<>(doubleRoundRobin ? 2 * rounds : rounds);
+        int index = 0;
+        for (int round = 0; round < rounds; round++) {
+            List<Fixture> fixtures = new ArrayList<>(n / 2);
+            for (int i = 0; i < n / 2; i++) {
+                UUID home = circle.get(i);
+                UUID away = circle.get(n - 1 - i);
+                if (home == null || away == null) continue;
+                // Alternate the fixed team's venue so it does not always play at home
+                if (i == 0 && round % 2 == 1) {
+                    fixtures.add(new Fixture(round, index++, away, home));
+                } else {
+                    fixtures.add(new Fixture(round, index++, home, away));
+                }
+            }
+            matchdays.add(fixtures);
+            // Rotate every team except the first one place clockwise
+            Collections.rotate(circle.subList(1, n), 1);
+        }
+        if (doubleRoundRobin) {
+            for (int round = 0; round < rounds; round++) {
+                List<Fixture> firstLeg = matchdays.get(round);
+                List<Fixture> secondLeg = new ArrayList<>(firstLeg.size());
+                for (Fixture fixture : firstLeg) {
+                    secondLeg.add(new Fixture(rounds + round, index++, fixture.getAwayTeamId(), fixture.getHomeTeamId()));
+                }
+                matchdays.add(secondLeg);
+            }
+        }
+        return matchdays;
+    }
+}
@@ -0,0 +1,104 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Result of a {@link SeasonForecaster} run: for every team, how many of the
+ * simulated seasons it finished in each position.
+ */
+public class SeasonForecast {
+    private final List<UUID> teamIds;
+    private final List<String> names;
+    private final long[] histogram;
+    private final int seasons;
+
+    SeasonForecast(List<UUID> teamIds, List<String> names, long[] histogram, int seasons) {
+        this.teamIds = teamIds;
+        this.names = names;
+        this.histogram = histogram;
+        this.seasons = seasons;
+    }
+
+    public int getSeasons() { return this.seasons; }
+    public int getTeamCount() { return this.teamIds.size(); }
+
+    /**
+     * @param teamId   the team
+     * @param position finishing position, 1 for the champion
+     * @return probability of the team finishing in that position
+     */
+    public double getPositionProbability(UUID teamId, int position) {
+        int team = indexOf(teamId);
+        return (double) histogram[team * getTeamCount() + position - 1] / seasons;
+    }
+
+    /**
+     * Summarises the forecast, best expected position first.
+     *
+     * @param qualificationSpots positions at the top that qualify
+     * @param relegationSpots    positions at the bottom that are relegated
+     * @return one row per team
+     */
+    public List<Row> getTable(int qualificationSpots, int relegationSpots) {
+        int teams = getTeamCount();
+        List<Row> rows = new ArrayList<>(teams);
+        for (int t = 0; t < teams; t++) {
+            long title = histogram[t * teams];
+            long qualified = 0, relegated = 0;
+            double positionSum = 0;
+            for (int position = 0; position < teams; position++) {
+                long count = histogram[t * teams + position];
+                if (position < qualificationSpots) qualified += count;
+                if (position >= teams - relegationSpots) relegated += count;
+                positionSum += (double) count * (position + 1);
+            }
+            rows.add(new Row(teamIds.get(t), names.get(t), (double) title / seasons, (double) qualified / seasons,
+                    (double) relegated / seasons, positionSum / seasons));
+        }
+        rows.sort(Comparator.comparingDouble(Row::getExpectedPosition));
+        return rows;
+    }
+
+    // --- UTILIDADES ---
+    private int indexOf(UUID teamId) {
+        int index = teamIds.indexOf(teamId);
+        if (index < 0) {
+            throw new IllegalArgumentException("Equipo fuera del pronóstico: " + teamId);
+        }
+        return index;
+    }
+
+    /**
+     * Forecast of one team.
+     */
+    public static final class Row {
+        private final UUID teamId;
+        private final String name;
+        private final double title, qualification, relegation, expectedPosition;
+
+        private Row(UUID teamId, String name, double title, double qualification, double relegation, double expectedPosition) {
+            this.teamId = teamId;
+            this.name = name;
+            this.title = title;
+            this.qualification = qualification;
+            this.relegation = relegation;
+            this.expectedPosition = expectedPosition;
+        }
+
+        public UUID getTeamId() { return this.teamId; }
+        public String getName() { return this.name; }
+        public double getTitleProbability() { return this.title; }
+        public double getQualificationProbability() { return this.qualification; }
+        public double getRelegationProbability() { return this.relegation; }
+        public double getExpectedPosition() { return this.expectedPosition; }
+
+        @Override
+        public String toString() {
+            return String.format("  %-30s %7.2f%% %7.2f%% %7.2f%% %9.2f",
+                    name, 100 * title, 100 * qualification, 100 * relegation, expectedPosition);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package simulation;
+
+import domain.DomainErrorCode;
+import domain.DomainException;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo forecaster that plays the same league many times and counts
+ * how often each team finishes in each position. It works on a copy of the
+ * league reduced to primitive arrays (the teams' bit-sliced scoring tables
+ * and the fixture pairs), so it never touches the repositories, the players'
+ * goals or the event bus.
+ * <p>
+ * Seasons are split across a fork/join pool. Each leaf task keeps its own
+ * position histogram and partial histograms are added together as the tasks
+ * join, so workers never share a counter while simulating. Every season
+ * draws from its own seed, which makes a forecast reproducible regardless of
+ * the parallelism. Teams level on points are ordered by goal difference,
+ * goals scored and then by lot (head-to-head is not tracked here).
+ * <p>
+ * Every leaf task holds a dense team by position histogram, so leagues are
+ * limited to {@link #MAX_TEAMS} teams: beyond that the histograms alone would
+ * take gigabytes. The limit also keeps every count in its field of the
+ * 16-bit sort key.
+ */
+public class SeasonForecaster {
+    // Seasons simulated by a leaf task before it stops splitting
+    private static final int SEASONS_PER_TASK = 256;
+    /** Largest league forecast: an 8 MiB histogram per leaf and at most 6,138 points per team. */
+    public static final int MAX_TEAMS = 1024;
+
+    private final List<UUID> teamIds;
+    private final List<String> names;
+    private final TeamProfile[] profiles;
+    private final int[] homeTeams, awayTeams;
+
+    /**
+     * @param profiles         participating teams, in canonical order
+     * @param names            display names, parallel to {@code profiles}
+     * @param doubleRoundRobin true to play home and away legs
+     * @throws DomainException with {@code VALIDATION_ERROR} if there are more than {@link #MAX_TEAMS} teams
+     */
+    public SeasonForecaster(List<TeamProfile> profiles, List<String> names, boolean doubleRoundRobin) {
+        requireSupportedSize(profiles.size());
+        this.profiles = profiles.toArray(new TeamProfile[0]);
+        this.teamIds = profiles.stream().map(TeamProfile::getTeamId).toList();
+        this.names = List.copyOf(names);
+        Map<UUID, Integer> indexById = new HashMap<>();
+        for (int t = 0; t < this.teamIds.size(); t++) {
+            indexById.put(this.teamIds.get(t), t);
+        }
+        List<List<Fixture>> matchdays = RoundRobinScheduler.schedule(this.teamIds, doubleRoundRobin);
+        int fixtures = matchdays.stream().mapToInt(List::size).sum();
+        this.homeTeams = new int[fixtures];
+        this.awayTeams = new int[fixtures];
+        for (List<Fixture> matchday : matchdays) {
+            for (Fixture fixture : matchday) {
+                homeTeams[fixture.getIndex()] = indexById.get(fixture.getHomeTeamId());
+                awayTeams[fixture.getIndex()] = indexById.get(fixture.getAwayTeamId());
+            }
+        }
+    }
+
+    /**
+     * @param seasons number of seasons to simulate
+     * @param seed    the seed of the forecast
+     * @param pool    pool the seasons are simulated on
+     * @return how often each team finished in each position
+     */
+    public SeasonForecast run(int seasons, long seed, ForkJoinPool pool) {
+        long[] histogram = pool.invoke(new SeasonsTask(seed, 0, seasons));
+        return new SeasonForecast(teamIds, names, histogram, seasons);
+    }
+
+    /**
+     * @param teams number of teams of the league
+     * @throws DomainException with {@code VALIDATION_ERROR} if there are more than {@link #MAX_TEAMS} teams
+     */
+    public static void requireSupportedSize(int teams) {
+        if (teams > MAX_TEAMS) {
+            throw new DomainException(DomainErrorCode.VALIDATION_ERROR,
+                    "Demasiados equipos para pronosticar: " + teams + " (máximo " + MAX_TEAMS + ").");
+        }
+    }
+
+    /**
+     * Plays one season and adds each team's finishing position to the
+     * histogram ({@code histogram[team * teams + position]}).
+     */
+    private void playSeason(long seasonSeed, long[] histogram, Workspace work) {
+        int teams = profiles.length;
+        int[] points = work.points, goalsFor = work.goalsFor, goalsAgainst = work.goalsAgainst;
+        SplittableRandom random = new SplittableRandom(seasonSeed);
+        Arrays.fill(points, 0);
+        Arrays.fill(goalsFor, 0);
+        Arrays.fill(goalsAgainst, 0);
+        for (int f = 0; f < homeTeams.length; f++) {
+            int home = homeTeams[f], away = awayTeams[f];
+            int homeGoals = GoalKernel.goals(profiles[home], random);
+            int awayGoals = GoalKernel.goals(profiles[away], random);
+            goalsFor[home] += homeGoals;
+            goalsAgainst[home] += awayGoals;
+            goalsFor[away] += awayGoals;
+            goalsAgainst[away] += homeGoals;
+            if (homeGoals > awayGoals) {
+                points[home] += 3;
+            } else if (awayGoals > homeGoals) {
+                points[away] += 3;
+            } else {
+                points[home]++;
+                points[away]++;
+            }
+        }
+        // Drawing of lots: a random slot per team, so full ties are broken uniformly
+        int[] teamAtSlot = work.teamAtSlot;
+        for (int slot = teams - 1; slot > 0; slot--) {
+            int other = random.nextInt(slot + 1);
+            int swap = teamAtSlot[slot];
+            teamAtSlot[slot] = teamAtSlot[other];
+            teamAtSlot[other] = swap;
+        }
+        // One sortable key per team: points | goal difference | goals for | slot
+        long[] keys = work.keys;
+        for (int slot = 0; slot < teams; slot++) {
+            int t = teamAtSlot[slot];
+            int difference = Math.max(-(1 << 15), Math.min((1 << 15) - 1, goalsFor[t] - goalsAgainst[t]));
+            // Points fit in 16 bits for MAX_TEAMS; goals for only break ties, so saturating them is harmless
+            keys[slot] = ((long) points[t] << 48)
+                    | ((long) (difference + (1 << 15)) << 32)
+                    | ((long) Math.min(goalsFor[t], 0xFFFF) << 16)
+                    | slot;
+        }
+        Arrays.sort(keys);
+        for (int position = 0; position < teams; position++) {
+            int team = teamAtSlot[(int) (keys[teams - 1 - position] & 0xFFFF)];
+            histogram[team * teams + position]++;
+        }
+    }
+
+    /** Scratch arrays reused by a leaf task for every season it plays. */
+    private static final class Workspace {
+        private final int[] points, goalsFor, goalsAgainst, teamAtSlot;
+        private final long[] keys;
+
+        private Workspace(int teams) {
+            this.points = new int[teams];
+            this.goalsFor = new int[teams];
+            this.goalsAgainst = new int[teams];
+            this.teamAtSlot = new int[teams];
+            this.keys = new long[teams];
+        }
+    }
+
+    /** Simulates a range of seasons and returns their merged histogram. */
+    @SuppressWarnings("serial") // Serializable only through ForkJoinTask; tasks are never serialized
+    private final class SeasonsTask extends RecursiveTask<long[]> {
+        private final long seed;
+        private final int from, to;
+
+        private SeasonsTask(long seed, int from, int to) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            int teams = profiles.length;
+            if (to - from <= SEASONS_PER_TASK) {
+                long[] histogram = new long[teams * teams];
+                Workspace work = new Workspace(teams);
+                for (int season = from; season < to; season++) {
+                    // The lot only depends on the season's seed, not on the previous season
+                    for (int slot = 0; slot < teams; slot++) {
+                        work.teamAtSlot[slot] = slot;
+                    }
+                    playSeason(Seeds.forSeason(seed, season), histogram, work);
+                }
+                return histogram;
+            }
+            int mid = (from + to) >>> 1;
+            SeasonsTask right = new SeasonsTask(seed, mid, to);
+            right.fork();
+            long[] merged = new SeasonsTask(seed, from, mid).compute();
+            long[] other = right.join();
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] += other[i];
+            }
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package simulation;
+
+import java.util.SplittableRandom;
+
+/**
+ * Seed derivation for reproducible simulations. A season (or a single
+ * friendly match) is identified by one 64-bit seed; every fixture gets its
+ * own seed mixed from the season seed and the fixture's index, so fixtures
+ * draw from independent streams and the outcome does not depend on which
+ * thread plays which fixture, or in what order. Forecasts derive one seed
+ * per simulated season in the same way.
+ */
+public final class Seeds {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private static final SplittableRandom ROOT = new SplittableRandom();
+
+    private Seeds() {
+        // utility class - prevent instantiation
+    }
+
+    /** @return a fresh, unpredictable seed */
+    public static synchronized long newSeed() {
+        return ROOT.nextLong();
+    }
+
+    /**
+     * SplitMix64 finalizer over {@code seasonSeed + (fixtureIndex + 1) * gamma}.
+     *
+     * @param seasonSeed   the seed of the whole season
+     * @param fixtureIndex position of the fixture in the season
+     * @return the fixture's own seed
+     */
+    public static long forFixture(long seasonSeed, long fixtureIndex) {
+        return mix(seasonSeed, fixtureIndex);
+    }
+
+    /**
+     * @param forecastSeed the seed of a whole forecast
+     * @param seasonIndex  number of the simulated season
+     * @return the season's own seed
+     */
+    public static long forSeason(long forecastSeed, long seasonIndex) {
+        return mix(forecastSeed, seasonIndex);
+    }
+
+    // --- UTILIDADES ---
+    private static long mix(long seed, long index) {
+        long z = seed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,211 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * League table built from match results. Wins are worth three points and
+ * draws one. Teams level on points are ordered by the points they took in
+ * the matches among themselves (head-to-head), then by overall goal
+ * difference, goals scored and name.
+ * <p>
+ * Counters are kept in primitive arrays indexed by team, and every result is
+ * remembered compactly so head-to-head can be evaluated for any group of
+ * tied teams in a single pass. Not thread-safe: record results from one
+ * thread.
+ * <p>
+ * The table also remembers the season seed, so the same season can be
+ * played again with the same rosters, as long as the odds are not scaled by
+ * the Elo ratings or the players' form (see {@link TeamProfileCache}).
+ */
+public class Standings {
+    private static final int POINTS_WIN = 3;
+    private static final int POINTS_DRAW = 1;
+
+    private final long seasonSeed;
+    private final Map<UUID, Integer> indexById;
+    private final UUID[] teamIds;
+    private final String[] names;
+    private final int[] played, won, drawn, lost, goalsFor, goalsAgainst;
+    // Every recorded result as (home, away, home goals, away goals)
+    private int[] results = new int[4 * 64];
+    private int resultCount;
+
+    /**
+     * @param teamNames  participating teams and their display names
+     * @param seasonSeed the seed the season is simulated with
+     */
+    public Standings(Map<UUID, String> teamNames, long seasonSeed) {
+        this.seasonSeed = seasonSeed;
+        int size = teamNames.size();
+        this.indexById = new HashMap<>(size * 2);
+        this.teamIds = new UUID[size];
+        this.names = new String[size];
+        int i = 0;
+        for (Map.Entry<UUID, String> entry : teamNames.entrySet()) {
+            indexById.put(entry.getKey(), i);
+            teamIds[i] = entry.getKey();
+            names[i] = entry.getValue();
+            i++;
+        }
+        this.played = new int[size];
+        this.won = new int[size];
+        this.drawn = new int[size];
+        this.lost = new int[size];
+        this.goalsFor = new int[size];
+        this.goalsAgainst = new int[size];
+    }
+
+    /**
+     * Adds a match result to the table.
+     *
+     * @param result the result to record
+     */
+    public void record(MatchResult result) {
+        int home = indexOf(result.getHomeTeamId());
+        int away = indexOf(result.getAwayTeamId());
+        int homeGoals = result.getHomeGoals();
+        int awayGoals = result.getAwayGoals();
+        played[home]++;
+        played[away]++;
+        goalsFor[home] += homeGoals;
+        goalsAgainst[home] += awayGoals;
+        goalsFor[away] += awayGoals;
+        goalsAgainst[away] += homeGoals;
+        if (homeGoals > awayGoals) {
+            won[home]++;
+            lost[away]++;
+        } else if (awayGoals > homeGoals) {
+            won[away]++;
+            lost[home]++;
+        } else {
+            drawn[home]++;
+            drawn[away]++;
+        }
+        if (4 * (resultCount + 1) > results.length) {
+            results = Arrays.copyOf(results, results.length * 2);
+        }
+        int base = 4 * resultCount++;
+        results[base] = home;
+        results[base + 1] = away;
+        results[base + 2] = homeGoals;
+        results[base + 3] = awayGoals;
+    }
+
+    /** @return the seed the season was simulated with */
+    public long getSeasonSeed() { return seasonSeed; }
+
+    /** @return number of results recorded so far */
+    public int getMatchesPlayed() { return resultCount; }
+
+    /**
+     * @return the table, best team first
+     */
+    public List<Row> getTable() {
+        int size = teamIds.length;
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer t) -> -points(t)));
+
+        // Teams level on points form a group; head-to-head only counts matches inside the group
+        int[] group = new int[size];
+        for (int i = 0, g = 0; i < size; i++) {
+            if (i > 0 && points(order[i]) != points(order[i - 1])) g++;
+            group[order[i]] = g;
+        }
+        int[] headToHead = new int[size];
+        for (int r = 0; r < resultCount; r++) {
+            int base = 4 * r;
+            int home = results[base], away = results[base + 1];
+            if (group[home] != group[away]) continue;
+            int homeGoals = results[base + 2], awayGoals = results[base + 3];
+            if (homeGoals > awayGoals) {
+                headToHead[home] += POINTS_WIN;
+            } else if (awayGoals > homeGoals) {
+                headToHead[away] += POINTS_WIN;
+            } else {
+                headToHead[home] += POINTS_DRAW;
+                headToHead[away] += POINTS_DRAW;
+            }
+        }
+
+        Arrays.sort(order, Comparator.comparingInt((Integer t) -> -points(t))
+                .thenComparingInt(t -> -headToHead[t])
+                .thenComparingInt(t -> -(goalsFor[t] - goalsAgainst[t]))
+                .thenComparingInt(t -> -goalsFor[t])
+                .thenComparing(t -> names[t]));
+
+        List<Row> table = new ArrayList<>(size);
+        for (int position = 0; position < size; position++) {
+            int t = order[position];
+            table.add(new Row(position + 1, teamIds[t], names[t], played[t], won[t], drawn[t], lost[t],
+                    goalsFor[t], goalsAgainst[t], points(t), headToHead[t]));
+        }
+        return table;
+    }
+
+    // --- UTILIDADES ---
+    private int points(int team) {
+        return POINTS_WIN * won[team] + POINTS_DRAW * drawn[team];
+    }
+
+    private int indexOf(UUID teamId) {
+        Integer index = indexById.get(teamId);
+        if (index == null) {
+            throw new IllegalArgumentException("Equipo fuera de la liga: " + teamId);
+        }
+        return index;
+    }
+
+    /**
+     * One line of the league table.
+     */
+    public static final class Row {
+        private final int position;
+        private final UUID teamId;
+        private final String name;
+        private final int played, won, drawn, lost, goalsFor, goalsAgainst, points, headToHeadPoints;
+
+        private Row(int position, UUID teamId, String name, int played, int won, int drawn, int lost,
+                    int goalsFor, int goalsAgainst, int points, int headToHeadPoints) {
+            this.position = position;
+            this.teamId = teamId;
+            this.name = name;
+            this.played = played;
+            this.won = won;
+            this.drawn = drawn;
+            this.lost = lost;
+            this.goalsFor = goalsFor;
+            this.goalsAgainst = goalsAgainst;
+            this.points = points;
+            this.headToHeadPoints = headToHeadPoints;
+        }
+
+        public int getPosition() { return this.position; }
+        public UUID getTeamId() { return this.teamId; }
+        public String getName() { return this.name; }
+        public int getPlayed() { return this.played; }
+        public int getWon() { return this.won; }
+        public int getDrawn() { return this.drawn; }
+        public int getLost() { return this.lost; }
+        public int getGoalsFor() { return this.goalsFor; }
+        public int getGoalsAgainst() { return this.goalsAgainst; }
+        public int getGoalDifference() { return this.goalsFor - this.goalsAgainst; }
+        public int getPoints() { return this.points; }
+        /** @return points taken against the teams level on points with this one */
+        public int getHeadToHeadPoints() { return this.headToHeadPoints; }
+
+        @Override
+        public String toString() {
+            return String.format("%4d  %-30s %4d %4d %4d %4d %4d %5d %5d %+5d",
+                    position, name, points, played, won, drawn, lost, goalsFor, goalsAgainst, getGoalDifference());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package simulation;
+
+import model.Player;
+import model.Position;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Precomputed scoring table of a team. Each player gets a probability of
+ * scoring in a match from the player's position ({@link Position}), age
+ * ({@code birthYear}) and, optionally, form (goals scored so far). The probability is
+ * quantised to an 8-bit threshold and the thresholds are stored bit-sliced:
+ * for every 64 players there are eight words, word {@code k} holding bit
+ * {@code 7 - k} of each player's threshold. {@link GoalKernel} compares them
+ * against eight random words to draw the whole roster at once.
+ * <p>
+ * Profiles are immutable snapshots; {@link TeamProfileCache} rebuilds them
+ * when the roster changes. Form is not part of the roster: goals change with
+ * every match and the match events do not record them, so a profile with
+ * form makes the outcome of a seed depend on when the profile was built.
+ */
+public final class TeamProfile {
+    /** Precision of the quantised probabilities. */
+    public static final int THRESHOLD_BITS = 8;
+    private static final int THRESHOLD_SCALE = 1 << THRESHOLD_BITS;
+    private static final double MAX_PROBABILITY = 0.95;
+
+    // -------- PROBABILIDAD BASE POR POSICIÓN --------
+    private static final double GOALKEEPER = 0.01;
+    private static final double DEFENDER = 0.05;
+    private static final double MIDFIELDER = 0.10;
+    private static final double FORWARD = 0.20;
+    private static final double UNKNOWN_POSITION = 0.08;
+
+    private final UUID teamId;
+    private final List<UUID> playerIds;
+    private final long[] planes;
+    private final double expectedGoals;
+
+    private TeamProfile(UUID teamId, List<UUID> playerIds, long[] planes, double expectedGoals) {
+        this.teamId = teamId;
+        this.playerIds = playerIds;
+        this.planes = planes;
+        this.expectedGoals = expectedGoals;
+    }
+
+    /**
+     * Builds the profile of a team.
+     *
+     * @param teamId      the team
+     * @param players     the team's players, in any order
+     * @param currentYear year used to compute the players' age
+     * @param withForm    true to raise the odds of players who have scored before
+     * @return the profile, with players in canonical order (by id)
+     */
+    public static TeamProfile of(UUID teamId, List<Player> players, int currentYear, boolean withForm) {
+        List<Player> sorted = new ArrayList<>(players);
+        sorted.sort(Comparator.comparing(Player::getPlayerId));
+        List<UUID> ids = new ArrayList<>(sorted.size());
+        long[] planes = new long[words(sorted.size()) * THRESHOLD_BITS];
+        double expectedGoals = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            Player player = sorted.get(i);
+            ids.add(player.getPlayerId());
+            int threshold = threshold(scoringProbability(player, currentYear, withForm));
+            expectedGoals += (double) threshold / THRESHOLD_SCALE;
+            setThreshold(planes, i, threshold);
+        }
+        return new TeamProfile(teamId, List.copyOf(ids), planes, expectedGoals);
+    }
+
+    /**
+     * Scales every player's scoring probability, e.g. by the team's rating.
+     *
+     * @param factor multiplier of the probabilities (still capped at 0.95)
+     * @return the scaled profile, or this profile if the factor is 1
+     */
+    public TeamProfile withStrength(double factor) {
+        if (factor == 1.0) return this;
+        long[] scaled = new long[planes.length];
+        double scaledGoals = 0;
+        for (int i = 0; i < playerIds.size(); i++) {
+            double probability = (double) thresholdAt(planes, i) / THRESHOLD_SCALE;
+            int threshold = threshold(Math.min(MAX_PROBABILITY, probability * factor));
+            scaledGoals += (double) threshold / THRESHOLD_SCALE;
+            setThreshold(scaled, i, threshold);
+        }
+        return new TeamProfile(teamId, playerIds, scaled, scaledGoals);
+    }
+
+    // -------- GETTERS --------
+    public UUID getTeamId() { return this.teamId; }
+    /** @return the players in the order of the bit lanes */
+    public List<UUID> getPlayerIds() { return this.playerIds; }
+    public int getRosterSize() { return this.playerIds.size(); }
+    /** @return mean number of goals per match implied by the table */
+    public double getExpectedGoals() { return this.expectedGoals; }
+
+    /** @return the bit-sliced thresholds, {@link #THRESHOLD_BITS} words per 64 players (not copied) */
+    long[] planes() { return this.planes; }
+
+    /**
+     * @param player      the player
+     * @param currentYear year used to compute the player's age
+     * @param withForm    true to apply the form factor of the player's goals
+     * @return probability that the player scores in a match
+     */
+    public static double scoringProbability(Player player, int currentYear, boolean withForm) {
+        double probability = positionWeight(player.getPosition())
+                * ageFactor(currentYear - player.getBirthYear())
+                * (withForm ? formFactor(player.getGoals()) : 1.0);
+        return Math.min(MAX_PROBABILITY, probability);
+    }
+
+    // -------- UTILIDADES --------
+    static int words(int players) {
+        return (players + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    private static int threshold(double probability) {
+        return (int) Math.min(THRESHOLD_SCALE - 1, Math.round(probability * THRESHOLD_SCALE));
+    }
+
+    private static void setThreshold(long[] planes, int player, int threshold) {
+        int base = (player / Long.SIZE) * THRESHOLD_BITS;
+        long lane = 1L << (player % Long.SIZE);
+        for (int k = 0; k < THRESHOLD_BITS; k++) {
+            if ((threshold & (1 << (THRESHOLD_BITS - 1 - k))) != 0) {
+                planes[base + k] |= lane;
+            }
+        }
+    }
+
+    private static int thresholdAt(long[] planes, int player) {
+        int base = (player / Long.SIZE) * THRESHOLD_BITS;
+        long lane = 1L << (player % Long.SIZE);
+        int threshold = 0;
+        for (int k = 0; k < THRESHOLD_BITS; k++) {
+            if ((planes[base + k] & lane) != 0) {
+                threshold |= 1 << (THRESHOLD_BITS - 1 - k);
+            }
+        }
+        return threshold;
+    }
+
+    private static double positionWeight(Position position) {
+        return switch (position) {
+            case GOALKEEPER -> GOALKEEPER;
+            case DEFENDER -> DEFENDER;
+            case MIDFIELDER -> MIDFIELDER;
+            case FORWARD -> FORWARD;
+            case UNKNOWN -> UNKNOWN_POSITION;
+        };
+    }
+
+    /** Rendimiento máximo entre 24 y 30 años. */
+    private static double ageFactor(int age) {
+        if (age < 21) return 0.85;
+        if (age < 24) return 0.95;
+        if (age <= 30) return 1.0;
+        if (age <= 34) return 0.9;
+        return 0.75;
+    }
+
+    /** Los goleadores en racha marcan algo más: hasta +50%. */
+    private static double formFactor(int goals) {
+        return 1.0 + Math.min(0.5, 0.1 * (Math.log1p(goals) / Math.log(2)));
+    }
+}
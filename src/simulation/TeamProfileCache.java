@@ -0,0 +1,86 @@
+package simulation;
+
+import events.DomainEvent;
+import events.PlayerAddedToTeamEvent;
+import events.PlayerDeletedFromTeamEvent;
+import events.RosterImportedEvent;
+import events.TeamDeletedEvent;
+import events.bus.DomainEventListener;
+import repository.PlayerRepository;
+
+import java.time.Year;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one {@link TeamProfile} per team so that simulations do not reload
+ * and re-score the roster for every match. A profile is built on first use
+ * and dropped only when the roster changes, i.e. on
+ * {@link PlayerAddedToTeamEvent} and {@link PlayerDeletedFromTeamEvent}
+ * ({@link TeamDeletedEvent} just frees the entry).
+ * <p>
+ * The form factor ({@link TeamProfile#of(UUID, java.util.List, int, boolean)})
+ * is off unless asked for. Goals scored in later matches do not invalidate a
+ * profile, so with form the odds are those of the goals at the time the
+ * profile was built: the same seed then gives different goals depending on
+ * the age of the cache entry. Leave it off where matches must be replayable.
+ * <p>
+ * Subscribe it with {@code Delivery.INLINE} so that a match simulated right
+ * after a roster change already sees the new profile.
+ * <p>
+ * When built with {@link EloRatings}, the profiles it hands out are scaled
+ * by each team's current rating ({@link EloRatings#strengthOf(UUID)}), so
+ * stronger teams score more often. The cached profile stays unscaled. The
+ * match events do not record the strength that was used, so with ratings a
+ * seed no longer reproduces a match: the same seed plays differently once
+ * the ratings have moved. Leave them out where matches must be replayable.
+ */
+public class TeamProfileCache implements DomainEventListener<DomainEvent> {
+    private final PlayerRepository playerRepository;
+    // null: odds depend on the rosters only
+    private final EloRatings ratings;
+    private final boolean withForm;
+    private final Map<UUID, TeamProfile> profiles = new ConcurrentHashMap<>();
+
+    public TeamProfileCache(PlayerRepository playerRepository) {
+        this(playerRepository, null, false);
+    }
+
+    /**
+     * @param playerRepository source of the rosters
+     * @param ratings          ratings that scale the odds, or {@code null} for roster-only odds
+     * @param withForm         true to raise the odds of players who have scored before
+     */
+    public TeamProfileCache(PlayerRepository playerRepository, EloRatings ratings, boolean withForm) {
+        this.playerRepository = playerRepository;
+        this.ratings = ratings;
+        this.withForm = withForm;
+    }
+
+    /**
+     * @param teamId the team
+     * @return the team's profile, built now if missing and scaled by its rating if enabled
+     */
+    public TeamProfile profileOf(UUID teamId) {
+        TeamProfile profile = profiles.computeIfAbsent(teamId,
+                id -> TeamProfile.of(id, playerRepository.findPlayersByTeam(id), Year.now().getValue(), withForm));
+        return ratings == null ? profile : profile.withStrength(ratings.strengthOf(teamId));
+    }
+
+    /** @return number of cached profiles */
+    public int size() { return profiles.size(); }
+
+    @Override
+    public void onEvent(DomainEvent event) {
+        if (event instanceof PlayerAddedToTeamEvent pa) {
+            profiles.remove(pa.getTeamId());
+        } else if (event instanceof PlayerDeletedFromTeamEvent pd) {
+            profiles.remove(pd.getTeamId());
+        } else if (event instanceof TeamDeletedEvent td) {
+            profiles.remove(td.getTeamId());
+        } else if (event instanceof RosterImportedEvent ri) {
+            ri.getPlayers().forEach(player -> profiles.remove(player.getTeamId()));
+        }
+    }
+}
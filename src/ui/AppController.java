@@ -1,21 +1,58 @@
 package ui;
 
+import domain.DomainErrorCode;
 import domain.DomainException;
+import model.MatchRecord;
 import model.Player;
 import model.Team;
+import model.TeamSummary;
+import query.Page;
+import query.PlayerFields;
+import query.Query;
+import query.TeamFields;
+import repository.MatchHistory;
+import service.LeagueService;
 import service.PlayerService;
 import service.TeamService;
-import util.IdUtils;
+import simulation.EloRatings;
+import simulation.MatchResult;
+import simulation.SeasonForecast;
+import simulation.Seeds;
+import simulation.Standings;
 
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class AppController {
     private final TeamService teamService;
     private final PlayerService playerService;
+    private final LeagueService leagueService;
 
-    public AppController(TeamService teamService, PlayerService playerService) {
+    // Filas de la clasificación que se muestran por consola
+    private static final int STANDINGS_ROWS_SHOWN = 20;
+
+    // Pronóstico: temporadas por defecto y plazas de clasificación / descenso
+    private static final int DEFAULT_FORECAST_SEASONS = 100_000;
+    private static final int QUALIFICATION_SPOTS = 4;
+    private static final int RELEGATION_SPOTS = 3;
+
+    // Lote de amistosos en segundo plano
+    private static final int DEFAULT_BATCH_MATCHES = 1_000;
+
+    // Historial: partidos listados y ventana de actividad reciente
+    private static final int HISTORY_MATCHES_SHOWN = 10;
+    private static final long RECENT_WINDOW_MS = 24L * 60 * 60 * 1000;
+    private static final DateTimeFormatter PLAYED_AT_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    public AppController(TeamService teamService, PlayerService playerService, LeagueService leagueService) {
         this.teamService = teamService;
         this.playerService = playerService;
+        this.leagueService = leagueService;
     }
 
     public void createTeam(Scanner scanner) {
@@ -41,7 +78,7 @@ public class AppController {
         System.out.print("ID del equipo: ");
         try {
             String teamIdStr = scanner.nextLine().trim();
-            UUID teamId = IdUtils.parse(teamIdStr);
+            UUID teamId = teamService.resolveTeamId(teamIdStr);
             if (teamId == null) {
                 System.out.println("> Error al agregar Id del equipo.");
                 return;
@@ -68,7 +105,7 @@ public class AppController {
         System.out.print("ID del jugador: ");
         String playerIdStr = scanner.nextLine().trim();
         try {
-            UUID playerId = IdUtils.parse(playerIdStr);
+            UUID playerId = playerService.resolvePlayerId(playerIdStr);
             if (playerId == null) {
                 System.out.println("> Error al agregar Id del jugador.");
                 return;
@@ -90,13 +127,18 @@ public class AppController {
         System.out.print("ID del equipo: ");
         String teamIdStr = scanner.nextLine().trim();
         try {
-            UUID teamId = IdUtils.parse(teamIdStr);
+            UUID teamId = teamService.resolveTeamId(teamIdStr);
             if (teamId == null) {
                 System.out.println("> Error al agregar Id del equipo.");
                 return;
             }
 
-            List<Player> players = playerService.findPlayersByTeam(teamId);
+            Query<Player> roster = Query.<Player>builder()
+                    .where(PlayerFields.TEAM_ID.eq(teamId))
+                    .orderBy(PlayerFields.SQUAD_NUMBER, Query.Direction.ASC)
+                    .limit(Query.MAX_LIMIT)
+                    .build();
+            List<Player> players = playerService.queryPlayers(roster, player -> player).getItems();
             if (players.isEmpty()) {
                 System.out.println("> El equipo no tiene jugadores.");
             } else {
@@ -115,19 +157,21 @@ public class AppController {
         System.out.print("\nID del equipo: ");
         String teamIdStr = scanner.nextLine().trim();
         try {
-            UUID teamId = IdUtils.parse(teamIdStr);
+            UUID teamId = teamService.resolveTeamId(teamIdStr);
             if (teamId == null) {
                 System.out.println("> Error al agregar Id del equipo.");
                 return;
             }
 
             Optional<Team> team = teamService.findTeam(teamId);
-            if (team.isEmpty()) {
+            Optional<TeamSummary> summary = teamService.findTeamSummary(teamId);
+            if (team.isEmpty() || summary.isEmpty()) {
                 System.out.println("> Equipo no encontrado.");
             } else {
-                List<Player> players = playerService.findPlayersByTeam(teamId);
                 System.out.println(team.get());
-                System.out.println("- Número de jugadores: " + players.size());
+                System.out.println("- Número de jugadores: " + summary.get().getPlayers());
+                System.out.println("- Goles de la plantilla: " + summary.get().getGoals());
+                System.out.printf("- Edad media: %.1f%n", summary.get().getAverageAge());
             }
         } catch (DomainException e) {
             System.out.println("> Error: " + e.getMessage());
@@ -139,7 +183,7 @@ public class AppController {
         System.out.print("ID del jugador: ");
         String playerIdStr = scanner.nextLine().trim();
         try {
-            UUID playerId = IdUtils.parse(playerIdStr);
+            UUID playerId = playerService.resolvePlayerId(playerIdStr);
             if (playerId == null) {
                 System.out.println("> Error al agregar Id del jugador.");
                 return;
@@ -157,13 +201,12 @@ public class AppController {
         System.out.print("ID del equipo: ");
         String teamIdStr = scanner.nextLine().trim();
         try {
-            UUID teamId = IdUtils.parse(teamIdStr);
+            UUID teamId = teamService.resolveTeamId(teamIdStr);
             if (teamId == null) {
                 System.out.println("> Error al agregar Id del equipo.");
                 return;
             }
 
-            playerService.deletePlayersByTeam(teamId);
             teamService.deleteTeam(teamId);
             System.out.println("> Equipo y jugadores se eliminaron correctamente.");
         } catch (DomainException e) {
@@ -173,16 +216,17 @@ public class AppController {
 
     public void showSummary() {
         System.out.println("\n=== Mostrar resumen ===");
-        List<Team> teams = teamService.findAllTeams();
-        if (teams.isEmpty()) {
+        List<TeamSummary> summaries = teamService.findAllTeamSummaries();
+        if (summaries.isEmpty()) {
             System.out.println("> No hay equipos registrados.");
         } else {
             System.out.println("Resumen de equipos:\n");
-            for (Team team : teams) {
-                List<Player> players = playerService.findPlayersByTeam(team.getTeamId());
-                System.out.println("- " + team.getName() + " (ID: " + team.getTeamId() + ")" +
-                        ", Jugadores: " + players.size() +
-                        ", Partidos ganados: " + team.getMatchesWon());
+            for (TeamSummary summary : summaries) {
+                System.out.println("- " + summary.getName() + " (ID: " + summary.getTeamId() + ")" +
+                        ", Jugadores: " + summary.getPlayers() +
+                        ", Goles: " + summary.getGoals() +
+                        String.format(", Edad media: %.1f", summary.getAverageAge()) +
+                        ", Partidos ganados: " + summary.getMatchesWon());
             }
         }
     }
@@ -193,20 +237,236 @@ public class AppController {
         String teamAIdStr = scanner.nextLine().trim();
         System.out.print("ID del equipo B: ");
         String teamBIdStr = scanner.nextLine().trim();
+        System.out.print("Semilla (vacío = aleatoria): ");
+        String seedStr = scanner.nextLine().trim();
         try {
-            UUID teamAIdUUID = IdUtils.parse(teamAIdStr);
-            UUID teamBIdUUID = IdUtils.parse(teamBIdStr);
+            UUID teamAIdUUID = teamService.resolveTeamId(teamAIdStr);
+            UUID teamBIdUUID = teamService.resolveTeamId(teamBIdStr);
             if (teamAIdUUID == null || teamBIdUUID == null) {
                 System.out.println("> Error al agregar Id del equipo.");
                 return;
             }
 
-            Optional<Team> winner = teamService.simulateMatch(teamAIdUUID, teamBIdUUID);
+            Optional<Team> winner = seedStr.isEmpty()
+                    ? teamService.simulateMatch(teamAIdUUID, teamBIdUUID)
+                    : teamService.simulateMatch(teamAIdUUID, teamBIdUUID, Long.parseLong(seedStr));
             if (winner.isEmpty()) {
                 System.out.println("El partido ha terminado en empate.");
             } else {
                 System.out.println("El ganador es: " + winner.get().getName());
             }
+        } catch (NumberFormatException e) {
+            System.out.println("> Error: la semilla debe ser un número entero.");
+        } catch (DomainException e) {
+            System.out.println("> Error: " + e.getMessage());
+        }
+    }
+
+    public void simulateLeague(Scanner scanner) {
+        System.out.println("\n=== Simular liga ===");
+        System.out.print("¿Ida y vuelta? (s/n): ");
+        boolean doubleRoundRobin = scanner.nextLine().trim().equalsIgnoreCase("s");
+        System.out.print("Semilla (vacío = aleatoria): ");
+        String seedStr = scanner.nextLine().trim();
+        try {
+            long start = System.nanoTime();
+            Standings standings = seedStr.isEmpty()
+                    ? leagueService.simulateLeague(doubleRoundRobin)
+                    : leagueService.simulateLeague(doubleRoundRobin, Long.parseLong(seedStr));
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("> Liga simulada (semilla " + standings.getSeasonSeed() + "): "
+                    + standings.getMatchesPlayed() + " partidos en " + millis + " ms.\n");
+            System.out.println(" Pos  Equipo                          Pts   PJ    G    E    P    GF    GC    DG");
+            List<Standings.Row> table = standings.getTable();
+            table.stream().limit(STANDINGS_ROWS_SHOWN).forEach(System.out::println);
+            if (table.size() > STANDINGS_ROWS_SHOWN) {
+                System.out.println("  ... (" + (table.size() - STANDINGS_ROWS_SHOWN) + " equipos más)");
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("> Error: la semilla debe ser un número entero.");
+        } catch (DomainException e) {
+            System.out.println("> Error: " + e.getMessage());
+        }
+    }
+
+    public void forecastSeason(Scanner scanner) {
+        System.out.println("\n=== Pronosticar temporada ===");
+        System.out.print("Número de temporadas a simular (vacío = " + DEFAULT_FORECAST_SEASONS + "): ");
+        String seasonsStr = scanner.nextLine().trim();
+        System.out.print("¿Ida y vuelta? (s/n): ");
+        boolean doubleRoundRobin = scanner.nextLine().trim().equalsIgnoreCase("s");
+        try {
+            int seasons = seasonsStr.isEmpty() ? DEFAULT_FORECAST_SEASONS : Integer.parseInt(seasonsStr);
+            long seed = Seeds.newSeed();
+            long start = System.nanoTime();
+            SeasonForecast forecast = leagueService.forecastSeason(seasons, doubleRoundRobin, seed);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            int teams = forecast.getTeamCount();
+            int qualification = Math.min(QUALIFICATION_SPOTS, teams / 2);
+            int relegation = Math.min(RELEGATION_SPOTS, teams - qualification - 1);
+            System.out.println("> " + seasons + " temporadas simuladas en " + millis + " ms (semilla " + seed + ").\n");
+            System.out.printf("  %-30s %8s %8s %8s %9s%n", "Equipo", "Campeón", "Top " + qualification, "Descenso", "Pos.media");
+            List<SeasonForecast.Row> table = forecast.getTable(qualification, relegation);
+            table.stream().limit(STANDINGS_ROWS_SHOWN).forEach(System.out::println);
+            if (table.size() > STANDINGS_ROWS_SHOWN) {
+                System.out.println("  ... (" + (table.size() - STANDINGS_ROWS_SHOWN) + " equipos más)");
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("> Error: el número de temporadas debe ser un entero.");
+        } catch (DomainException e) {
+            System.out.println("> Error: " + e.getMessage());
+        }
+    }
+
+    public void simulateMatchBatch(Scanner scanner) {
+        System.out.println("\n=== Simular partidos en lote ===");
+        System.out.print("Número de partidos (vacío = " + DEFAULT_BATCH_MATCHES + "): ");
+        String countStr = scanner.nextLine().trim();
+        try {
+            int count = countStr.isEmpty() ? DEFAULT_BATCH_MATCHES : Integer.parseInt(countStr);
+            List<Team> teams = teamService.findAllTeams();
+            if (teams.size() < 2) {
+                System.out.println("> Se necesitan al menos dos equipos.");
+                return;
+            }
+            // Amistosos entre parejas al azar; los de un mismo equipo se juegan en orden
+            long start = System.nanoTime();
+            List<CompletableFuture<MatchResult>> matches = new ArrayList<>(count);
+            int rejected = 0;
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < count; i++) {
+                int home = random.nextInt(teams.size());
+                int away = (home + 1 + random.nextInt(teams.size() - 1)) % teams.size();
+                try {
+                    matches.add(teamService.submitMatch(teams.get(home).getTeamId(), teams.get(away).getTeamId()));
+                } catch (DomainException e) {
+                    if (e.getErrorCode() != DomainErrorCode.QUEUE_FULL) throw e;
+                    rejected++;
+                }
+            }
+            int failed = 0;
+            for (CompletableFuture<MatchResult> match : matches) {
+                try {
+                    match.join();
+                } catch (RuntimeException e) {
+                    failed++;
+                }
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("> " + (matches.size() - failed) + " partidos simulados en " + millis + " ms"
+                    + (rejected > 0 ? ", " + rejected + " rechazados por cola llena" : "")
+                    + (failed > 0 ? ", " + failed + " con error" : "") + ".");
+        } catch (NumberFormatException e) {
+            System.out.println("> Error: el número de partidos debe ser un entero.");
+        } catch (DomainException e) {
+            System.out.println("> Error: " + e.getMessage());
+        }
+    }
+
+    public void showRatings(Scanner scanner) {
+        System.out.println("\n=== Ranking Elo ===");
+        System.out.print("ID de un equipo para ver su posición (vacío = ninguno): ");
+        String teamIdStr = scanner.nextLine().trim();
+        try {
+            Map<UUID, String> names = new HashMap<>();
+            for (Team team : teamService.findAllTeams()) {
+                names.put(team.getTeamId(), team.getName());
+            }
+            System.out.printf(" Pos  %-30s %7s %6s%n", "Equipo", "Elo", "PJ");
+            for (EloRatings.Entry entry : leagueService.ratingTable(STANDINGS_ROWS_SHOWN)) {
+                System.out.printf("%4d  %-30s %7.1f %6d%n", entry.getPosition(),
+                        names.getOrDefault(entry.getTeamId(), entry.getTeamId().toString()), entry.getRating(), entry.getPlayed());
+            }
+            if (!teamIdStr.isEmpty()) {
+                UUID teamId = teamService.resolveTeamId(teamIdStr);
+                if (teamId == null) {
+                    System.out.println("> Error al agregar Id del equipo.");
+                    return;
+                }
+                System.out.printf("> %s: posición %d de %d con %.1f puntos.%n", names.get(teamId),
+                        leagueService.ratingRankOf(teamId), names.size(), leagueService.ratingOf(teamId));
+            }
+        } catch (DomainException e) {
+            System.out.println("> Error: " + e.getMessage());
+        }
+    }
+
+    public void showTopScorers(Scanner scanner) {
+        System.out.println("\n=== Máximos goleadores ===");
+        System.out.print("Edad máxima (vacío = sin límite): ");
+        String maxAgeStr = scanner.nextLine().trim();
+        try {
+            Query.Builder<Player> builder = Query.<Player>builder()
+                    .orderBy(PlayerFields.GOALS, Query.Direction.DESC)
+                    .limit(STANDINGS_ROWS_SHOWN);
+            if (!maxAgeStr.isEmpty()) {
+                builder.where(PlayerFields.AGE.le(Integer.parseInt(maxAgeStr)));
+            }
+            long start = System.nanoTime();
+            Page<Player> page = playerService.queryPlayers(builder.build(), player -> player);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            if (page.getItems().isEmpty()) {
+                System.out.println("> No hay jugadores que cumplan el criterio.");
+                return;
+            }
+            System.out.printf(" Pos  %-30s %-20s %5s %6s%n", "Jugador", "Equipo", "Edad", "Goles");
+            int position = 1;
+            for (Player player : page.getItems()) {
+                System.out.printf("%4d  %-30s %-20s %5d %6d%n", position++, player.getFullName(),
+                        teamName(player.getTeamId()), PlayerFields.AGE.valueOf(player), player.getGoals());
+            }
+            if (page.getNext() != null) {
+                System.out.println("  ... (hay más jugadores)");
+            }
+            System.out.println("> Consulta resuelta con " + page.getPlan() + " en " + millis + " ms.");
+        } catch (NumberFormatException e) {
+            System.out.println("> Error: la edad debe ser un entero.");
+        } catch (DomainException e) {
+            System.out.println("> Error: " + e.getMessage());
+        }
+    }
+
+    public void showMatchHistory(Scanner scanner) {
+        System.out.println("\n=== Historial de partidos ===");
+        System.out.print("ID del equipo: ");
+        String teamIdStr = scanner.nextLine().trim();
+        System.out.print("ID del rival para el cara a cara (vacío = ninguno): ");
+        String rivalIdStr = scanner.nextLine().trim();
+        try {
+            UUID teamId = teamService.resolveTeamId(teamIdStr);
+            UUID rivalId = rivalIdStr.isEmpty() ? null : teamService.resolveTeamId(rivalIdStr);
+            if (teamId == null || (!rivalIdStr.isEmpty() && rivalId == null)) {
+                System.out.println("> Error al agregar Id del equipo.");
+                return;
+            }
+
+            Map<UUID, String> names = new HashMap<>();
+            for (Team team : teamService.findAllTeams()) {
+                names.put(team.getTeamId(), team.getName());
+            }
+            long now = System.currentTimeMillis();
+            System.out.println("> Partidos jugados en las últimas 24 h (todos los equipos): "
+                    + leagueService.countMatchesBetween(now - RECENT_WINDOW_MS, now + 1));
+
+            List<MatchRecord> recent;
+            if (rivalId == null) {
+                recent = leagueService.recentMatches(teamId, HISTORY_MATCHES_SHOWN);
+            } else {
+                MatchHistory.HeadToHead h2h = leagueService.headToHead(teamId, rivalId, HISTORY_MATCHES_SHOWN);
+                System.out.println("Cara a cara " + names.get(teamId) + " - " + names.get(rivalId) + ": "
+                        + h2h.getPlayed() + " partidos, " + h2h.getWon() + " G / " + h2h.getDrawn() + " E / "
+                        + h2h.getLost() + " P, goles " + h2h.getGoalsFor() + "-" + h2h.getGoalsAgainst());
+                recent = h2h.getLatest();
+            }
+            if (recent.isEmpty()) {
+                System.out.println("> No hay partidos registrados.");
+            }
+            for (MatchRecord match : recent) {
+                System.out.println("- " + PLAYED_AT_FORMAT.format(Instant.ofEpochMilli(match.getPlayedAt())) + "  "
+                        + names.getOrDefault(match.getHomeTeamId(), match.getHomeTeamId().toString()) + " "
+                        + match.getHomeGoals() + " - " + match.getAwayGoals() + " "
+                        + names.getOrDefault(match.getAwayTeamId(), match.getAwayTeamId().toString()));
+            }
         } catch (DomainException e) {
             System.out.println("> Error: " + e.getMessage());
         }
@@ -216,4 +476,11 @@ public class AppController {
         System.out.print("\nCerrando sesión de usuario...");
     }
 
+    // --- UTILIDADES ---
+    private String teamName(UUID teamId) {
+        Query<Team> byId = Query.<Team>builder().where(TeamFields.ID.eq(teamId)).limit(1).build();
+        List<String> names = teamService.queryTeams(byId, Team::getName).getItems();
+        return names.isEmpty() ? teamId.toString() : names.get(0);
+    }
+
 }
@@ -72,6 +72,12 @@ public class ConsoleMenu {
                 case DELETE_TEAM -> controller.deleteTeam(scanner);
                 case SHOW_SUMMARY -> controller.showSummary();
                 case SIMULATE_MATCH -> controller.simulateMatch(scanner);
+                case SIMULATE_LEAGUE -> controller.simulateLeague(scanner);
+                case FORECAST_SEASON -> controller.forecastSeason(scanner);
+                case MATCH_HISTORY -> controller.showMatchHistory(scanner);
+                case SIMULATE_MATCH_BATCH -> controller.simulateMatchBatch(scanner);
+                case SHOW_RATINGS -> controller.showRatings(scanner);
+                case SHOW_TOP_SCORERS -> controller.showTopScorers(scanner);
                 case EXIT -> {
                     controller.exitRequested();
                     this.running = false;
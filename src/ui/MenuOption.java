@@ -10,6 +10,12 @@ public enum MenuOption {
     DELETE_TEAM(7, "Eliminar un equipo"),
     SHOW_SUMMARY(8, "Mostrar resumen"),
     SIMULATE_MATCH(9, "Simular partido"),
+    SIMULATE_LEAGUE(10, "Simular liga"),
+    FORECAST_SEASON(11, "Pronosticar temporada"),
+    MATCH_HISTORY(12, "Historial de partidos"),
+    SIMULATE_MATCH_BATCH(13, "Simular partidos en lote"),
+    SHOW_RATINGS(14, "Ranking Elo"),
+    SHOW_TOP_SCORERS(15, "Máximos goleadores"),
     EXIT(0, "Salir");
 
     private final int optionNumber;
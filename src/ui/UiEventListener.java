@@ -3,23 +3,43 @@ package ui;
 import events.*;
 import events.bus.DomainEventListener;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Listener that provides immediate console feedback for domain events. It
  * reacts to every published event and prints a human-friendly message to
- * standard output. Running on its own executor via the event bus ensures
- * that the UI remains responsive.
+ * standard output. It is subscribed on the event bus' high-priority lane, so
+ * feedback is not queued behind persistence or other background work.
  */
 public class UiEventListener implements DomainEventListener<DomainEvent> {
+    // Lotes más grandes se resumen en una línea por tipo de evento
+    private static final int MAX_DETAILED_BATCH = 5;
+
+    @Override
+    public void onEvents(List<? extends DomainEvent> events) {
+        if (events.size() <= MAX_DETAILED_BATCH) {
+            events.forEach(this::onEvent);
+            return;
+        }
+        Map<Class<?>, Integer> counts = new LinkedHashMap<>();
+        events.forEach(event -> counts.merge(event.getClass(), 1, Integer::sum));
+        counts.forEach((type, count) -> System.out.println("\n[INFO] " + count + " x " + describe(type)));
+    }
+
     @Override
     public void onEvent(DomainEvent event) {
         if (event instanceof TeamCreatedEvent tc) {
             System.out.println("\n[INFO] Equipo creado: " + tc.getName() + " (" + tc.getTeamId() + ")");
         } else if (event instanceof TeamDeletedEvent tr) {
-            System.out.println("\n[INFO] Equipo eliminado: " + tr.getName() + " (" + tr.getTeamId() + ")");
+            System.out.println("\n[INFO] Equipo eliminado: " + tr.getName() + " (" + tr.getTeamId() + ") con " + tr.getPlayerIds().size() + " jugadores");
         } else if (event instanceof PlayerAddedToTeamEvent pa) {
             System.out.println("\n[INFO] Jugador añadido: " + pa.getPlayerId() + " al equipo " + pa.getTeamId() + " con dorsal " + pa.getSquadNumber());
         } else if (event instanceof PlayerDeletedFromTeamEvent pr) {
             System.out.println("\n[INFO] Jugador eliminado: " + pr.getPlayerId() + " del equipo " + pr.getTeamId());
+        } else if (event instanceof RosterImportedEvent ri) {
+            System.out.println("\n[INFO] Importación completada: " + ri.getTeams().size() + " equipos y " + ri.getPlayers().size() + " jugadores");
         } else if (event instanceof MatchSimulatedEvent ms) {
             // Determine outcome
             String result;
@@ -30,7 +50,17 @@ public class UiEventListener implements DomainEventListener<DomainEvent> {
             } else {
                 result = "Empate";
             }
-            System.out.println("\n[INFO] Partido simulado: " + ms.getTeamAId() + " " + ms.getGoalsA() + " - " + ms.getGoalsB() + " " + ms.getTeamBId() + " (" + result + ")");
+            System.out.println("\n[INFO] Partido simulado: " + ms.getTeamAId() + " " + ms.getGoalsA() + " - " + ms.getGoalsB() + " " + ms.getTeamBId() + " (" + result + ", semilla " + ms.getSeed() + ")");
         }
     }
+
+    private static String describe(Class<?> type) {
+        if (type == TeamCreatedEvent.class) return "equipo creado";
+        if (type == TeamDeletedEvent.class) return "equipo eliminado";
+        if (type == PlayerAddedToTeamEvent.class) return "jugador añadido";
+        if (type == PlayerDeletedFromTeamEvent.class) return "jugador eliminado";
+        if (type == MatchSimulatedEvent.class) return "partido simulado";
+        if (type == RosterImportedEvent.class) return "importación";
+        return type.getSimpleName();
+    }
 }
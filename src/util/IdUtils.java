@@ -1,23 +1,106 @@
 package util;
 
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Utility methods related to UUID handling. Provides convenience methods for
  * generation and parsing of UUIDs.
+ * <p>
+ * New ids are time-ordered UUIDs (version 7, RFC 9562): the first 48 bits
+ * are the Unix time in milliseconds, the next 12 a counter and the last 62
+ * random. Every thread keeps its own clock and counter and draws the random
+ * bits from {@link ThreadLocalRandom}, so generating an id takes no lock and
+ * never touches {@code SecureRandom}. Ids from one thread are strictly
+ * increasing; ids from different threads are ordered by millisecond.
+ * <p>
+ * {@link #parse(String)} reads the canonical 36-character form by hand: bad
+ * input costs one pass over the text, with no exception and no allocation.
  */
 public final class IdUtils {
+    private static final int COUNTER_BITS = 12;
+    private static final int COUNTER_MAX = (1 << COUNTER_BITS) - 1;
+    private static final long VERSION_7 = 0x7L << COUNTER_BITS;
+    private static final long VARIANT_MASK = 0x3fffffffffffffffL;
+    private static final long VARIANT_RFC = 0x8000000000000000L;
+    private static final int TEXT_LENGTH = 36;
+    /** Hex digits in the high half of an id. */
+    static final int HIGH_DIGITS = 16;
+
+    private static final ThreadLocal<Clock> CLOCKS = ThreadLocal.withInitial(Clock::new);
+
     private IdUtils() {
         // utility class - prevent instantiation
     }
 
-    public static UUID newId() { return UUID.randomUUID(); }
+    public static UUID newId() {
+        long msb = CLOCKS.get().next();
+        long lsb = ThreadLocalRandom.current().nextLong() & VARIANT_MASK | VARIANT_RFC;
+        return new UUID(msb, lsb);
+    }
 
+    /**
+     * @param id an id created by {@link #newId()}
+     * @return epoch milliseconds stored in the id
+     */
+    public static long timestampOf(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    /**
+     * @param value an id in canonical form ({@code 8-4-4-4-12} hex digits), surrounding blanks allowed
+     * @return the id, or {@code null} if {@code value} is not one
+     */
     public static UUID parse(String value) {
-        try {
-            return UUID.fromString(value.trim());
-        } catch (Exception e) {
-            return null;
+        if (value == null) return null;
+        int start = 0, end = value.length();
+        while (start < end && value.charAt(start) <= ' ') start++;
+        while (end > start && value.charAt(end - 1) <= ' ') end--;
+        if (end - start != TEXT_LENGTH) return null;
+        long high = 0, low = 0;
+        for (int i = 0, digits = 0; i < TEXT_LENGTH; i++) {
+            char c = value.charAt(start + i);
+            if (isDashPosition(i)) {
+                if (c != '-') return null;
+                continue;
+            }
+            int digit = hexDigit(c);
+            if (digit < 0) return null;
+            if (digits++ < HIGH_DIGITS) high = high << 4 | digit;
+            else low = low << 4 | digit;
+        }
+        return new UUID(high, low);
+    }
+
+    /** @return true at the positions of the four dashes of the canonical form */
+    static boolean isDashPosition(int index) {
+        return index == 8 || index == 13 || index == 18 || index == 23;
+    }
+
+    /** @return the value of a hex digit, or -1 */
+    static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+
+    /** Timestamp and counter of one thread: the high 64 bits of its last id. */
+    private static final class Clock {
+        private long millis;
+        private int counter;
+
+        private long next() {
+            long now = System.currentTimeMillis();
+            if (now > millis) {
+                millis = now;
+                counter = 0;
+            } else if (++counter > COUNTER_MAX) {
+                // Counter exhausted (or the clock went back): borrow the next millisecond
+                millis++;
+                counter = 0;
+            }
+            return millis << 16 | VERSION_7 | counter;
         }
     }
 }
@@ -0,0 +1,251 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Resolves a short id, as typed by an operator, to the full ids it can
+ * stand for. A short id is either the start of an id in canonical form (at
+ * least {@link #MIN_DIGITS} hex digits) or its last {@link #MIN_DIGITS} to
+ * {@link #MAX_SUFFIX_DIGITS} hex digits. Both are needed: time-ordered ids
+ * ({@link IdUtils#newId()}) created close together share their first
+ * characters, while their last ones are random.
+ * <p>
+ * The ids are kept as a sorted array of 128-bit keys (two {@code long[]},
+ * compared unsigned), so the ids with a given prefix are a contiguous range
+ * found with one binary search, O(log n). A second array holds the low
+ * halves bit-reversed, which turns a suffix into a prefix searched the same
+ * way. Both are sorted with a radix sort, in linear time.
+ * <p>
+ * The arrays are rebuilt lazily. Writers only call {@link #invalidate()}
+ * when an id has been added or removed, after the supplier shows the
+ * change, which bumps a counter; the next lookup
+ * that sees a counter newer than its arrays rebuilds them. Lookups never
+ * block writers and a lookup after a write always sees it.
+ */
+public final class ShortIdIndex {
+    /** Shortest prefix or suffix accepted, in hex digits. */
+    public static final int MIN_DIGITS = 6;
+    /** Longest suffix accepted: the last group of the canonical form. */
+    public static final int MAX_SUFFIX_DIGITS = 12;
+    private static final int ID_DIGITS = 32;
+    private static final int RADIX_BITS = 16;
+
+    private final Supplier<Collection<UUID>> ids;
+    private final AtomicLong changes = new AtomicLong();
+    private volatile Keys keys;
+
+    /**
+     * @param ids the current ids; called again on every rebuild
+     */
+    public ShortIdIndex(Supplier<Collection<UUID>> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Marks the arrays stale: an id was added or removed. Call it once the
+     * change is visible through the supplier; called before, a concurrent
+     * lookup could rebuild from the old ids and keep them as current.
+     */
+    public void invalidate() {
+        changes.incrementAndGet();
+    }
+
+    /**
+     * @param text text to check
+     * @return true if {@code text} can be a short id: the start of the canonical
+     *         form with at least {@link #MIN_DIGITS} hex digits, or the end of it
+     *         with {@link #MIN_DIGITS} to {@link #MAX_SUFFIX_DIGITS}
+     */
+    public static boolean isShortId(String text) {
+        return text != null && (prefixDigits(text) >= MIN_DIGITS || suffixDigits(text) >= MIN_DIGITS);
+    }
+
+    /**
+     * @param shortId the start or the end of an id, see {@link #isShortId(String)}
+     * @param limit   maximum number of ids returned
+     * @return ids that start with {@code shortId}, in ascending order, then ids
+     *         that end with it; empty if there are none or the text is not a short id
+     */
+    public List<UUID> find(String shortId, int limit) {
+        if (shortId == null) return List.of();
+        List<UUID> found = new ArrayList<>(Math.min(limit, 4));
+        Keys current = null;
+        int digits = prefixDigits(shortId);
+        if (digits >= MIN_DIGITS) {
+            current = current();
+            current.byPrefix(shortId, digits, limit, found);
+        }
+        digits = suffixDigits(shortId);
+        if (digits >= MIN_DIGITS && found.size() < limit) {
+            if (current == null) current = current();
+            current.bySuffix(shortId, digits, limit, found);
+        }
+        return found;
+    }
+
+    // --- UTILIDADES ---
+    private Keys current() {
+        long seen = changes.get();
+        Keys current = keys;
+        if (current == null || current.changes != seen) {
+            current = new Keys(seen, ids.get());
+            keys = current;
+        }
+        return current;
+    }
+
+    /** @return number of hex digits if {@code text} starts a canonical id, or -1 */
+    private static int prefixDigits(String text) {
+        if (text.length() > ID_DIGITS + 4) return -1;
+        int digits = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (IdUtils.isDashPosition(i)) {
+                if (c != '-') return -1;
+                continue;
+            }
+            if (IdUtils.hexDigit(c) < 0) return -1;
+            digits++;
+        }
+        return digits;
+    }
+
+    /** @return number of hex digits if {@code text} can end a canonical id, or -1 */
+    private static int suffixDigits(String text) {
+        if (text.length() > MAX_SUFFIX_DIGITS) return -1;
+        for (int i = 0; i < text.length(); i++) {
+            if (IdUtils.hexDigit(text.charAt(i)) < 0) return -1;
+        }
+        return text.length();
+    }
+
+    private static int compare(long aHigh, long aLow, long bHigh, long bLow) {
+        int byHigh = Long.compareUnsigned(aHigh, bHigh);
+        return byHigh != 0 ? byHigh : Long.compareUnsigned(aLow, bLow);
+    }
+
+    /**
+     * Stable LSD radix sort by unsigned 64-bit keys, in place. Moves the
+     * values themselves rather than a permutation, so every pass reads and
+     * writes the arrays in order.
+     *
+     * @param keys  the sort keys
+     * @param carry values moved along with their key
+     */
+    private static void radixSort(long[] keys, long[] carry) {
+        int n = keys.length;
+        long[] keyBuffer = new long[n], carryBuffer = new long[n];
+        int[] counts = new int[(1 << RADIX_BITS) + 1];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            Arrays.fill(counts, 0);
+            for (long key : keys) {
+                counts[((int) (key >>> shift) & 0xffff) + 1]++;
+            }
+            for (int d = 0; d < 1 << RADIX_BITS; d++) {
+                counts[d + 1] += counts[d];
+            }
+            for (int i = 0; i < n; i++) {
+                int at = counts[(int) (keys[i] >>> shift) & 0xffff]++;
+                keyBuffer[at] = keys[i];
+                carryBuffer[at] = carry[i];
+            }
+            // Four passes: the sorted values end up back in the caller's arrays
+            long[] swap = keys;
+            keys = keyBuffer;
+            keyBuffer = swap;
+            swap = carry;
+            carry = carryBuffer;
+            carryBuffer = swap;
+        }
+    }
+
+    /** Sorted ids of one rebuild and the change count they reflect. */
+    private static final class Keys {
+        final long changes;
+        // Ids sorted by (high, low)
+        final long[] high, low;
+        // Bit-reversed low halves, sorted, and the position of each in high/low
+        final long[] tails;
+        final int[] tailIds;
+
+        Keys(long changes, Collection<UUID> ids) {
+            this.changes = changes;
+            UUID[] all = ids.toArray(new UUID[0]);
+            int n = all.length;
+            high = new long[n];
+            low = new long[n];
+            for (int i = 0; i < n; i++) {
+                high[i] = all[i].getMostSignificantBits();
+                low[i] = all[i].getLeastSignificantBits();
+            }
+            // By low, then stably by high: sorted by (high, low)
+            radixSort(low, high);
+            radixSort(high, low);
+            tails = new long[n];
+            long[] positions = new long[n];
+            for (int i = 0; i < n; i++) {
+                tails[i] = Long.reverse(low[i]);
+                positions[i] = i;
+            }
+            radixSort(tails, positions);
+            tailIds = new int[n];
+            for (int i = 0; i < n; i++) {
+                tailIds[i] = (int) positions[i];
+            }
+        }
+
+        void byPrefix(String prefix, int digits, int limit, List<UUID> found) {
+            long wantHigh = 0, wantLow = 0;
+            for (int i = 0, d = 0; i < prefix.length(); i++) {
+                if (IdUtils.isDashPosition(i)) continue;
+                int digit = IdUtils.hexDigit(prefix.charAt(i));
+                if (d++ < IdUtils.HIGH_DIGITS) wantHigh = wantHigh << 4 | digit;
+                else wantLow = wantLow << 4 | digit;
+            }
+            // Pad the prefix into the range [first, last] of the ids that share it
+            int highPad = Math.max(0, IdUtils.HIGH_DIGITS - digits) * 4;
+            int lowPad = (ID_DIGITS - Math.max(digits, IdUtils.HIGH_DIGITS)) * 4;
+            long firstHigh = highPad == Long.SIZE ? 0 : wantHigh << highPad;
+            long lastHigh = highPad == 0 ? wantHigh : firstHigh | (-1L >>> (Long.SIZE - highPad));
+            long firstLow = lowPad == Long.SIZE ? 0 : wantLow << lowPad;
+            long lastLow = lowPad == 0 ? wantLow : firstLow | (-1L >>> (Long.SIZE - lowPad));
+            int from = 0, to = high.length;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (compare(high[mid], low[mid], firstHigh, firstLow) < 0) from = mid + 1;
+                else to = mid;
+            }
+            for (int i = from; i < high.length && found.size() < limit
+                    && compare(high[i], low[i], lastHigh, lastLow) <= 0; i++) {
+                found.add(new UUID(high[i], low[i]));
+            }
+        }
+
+        void bySuffix(String suffix, int digits, int limit, List<UUID> found) {
+            long want = 0;
+            for (int i = 0; i < digits; i++) {
+                want = want << 4 | IdUtils.hexDigit(suffix.charAt(i));
+            }
+            // The suffix is the low bits of the id: reversed, they lead the key
+            long first = Long.reverse(want);
+            long last = first | (-1L >>> (digits * 4));
+            int from = 0, to = tails.length;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (Long.compareUnsigned(tails[mid], first) < 0) from = mid + 1;
+                else to = mid;
+            }
+            for (int i = from; i < tails.length && found.size() < limit
+                    && Long.compareUnsigned(tails[i], last) <= 0; i++) {
+                UUID id = new UUID(high[tailIds[i]], low[tailIds[i]]);
+                if (!found.contains(id)) found.add(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent dictionary of strings: {@link #canonical(String)} returns one
+ * shared instance per distinct value, so fields that repeat a handful of
+ * values (positions, formations, cities, coaches) keep each value once in
+ * the heap instead of one copy per entity. An entity then pays only its
+ * reference to the shared value.
+ * <p>
+ * The dictionary is bounded: once it holds {@code capacity} values, new
+ * values are returned as they are, so a field that turns out to have high
+ * cardinality cannot grow it without limit. Lookups are lock-free.
+ */
+public final class StringDictionary {
+    private final Map<String, String> values = new ConcurrentHashMap<>();
+    private final int capacity;
+
+    /**
+     * @param capacity maximum number of distinct values kept
+     */
+    public StringDictionary(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("El diccionario necesita capacidad positiva.");
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param value a string, or {@code null}
+     * @return the shared instance equal to {@code value}, or {@code value} itself
+     *         if it is {@code null}, new and the dictionary is full
+     */
+    public String canonical(String value) {
+        if (value == null) return null;
+        String shared = values.get(value);
+        if (shared != null) return shared;
+        if (values.size() >= capacity) return value;
+        shared = values.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+    /** @return number of distinct values stored */
+    public int size() { return values.size(); }
+}